@@ -0,0 +1,38 @@
+package com.example.appointmentsystem.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fills {@code appointments.start_time} for rows written before the column existed.
+ * A no-op once every row has it.
+ */
+@Component
+public class AppointmentStartTimeBackfill implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(AppointmentStartTimeBackfill.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public AppointmentStartTimeBackfill(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int updated = jdbcTemplate.update("""
+                UPDATE appointments
+                SET start_time = (SELECT s.start_time FROM schedules s WHERE s.id = appointments.schedule_id)
+                WHERE start_time IS NULL
+                """);
+        if (updated > 0) {
+            log.info("Backfilled start_time on {} appointments", updated);
+        }
+    }
+}
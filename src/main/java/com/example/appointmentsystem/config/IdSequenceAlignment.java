@@ -0,0 +1,56 @@
+package com.example.appointmentsystem.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.enhanced.DatabaseStructure;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves each entity's id sequence past the ids already in its table. Tables filled while
+ * ids were auto-increment would otherwise hand out ids that are taken. Runs before the
+ * application serves anything, and is a no-op once the sequences are ahead.
+ * <p>
+ * Only the table-backed sequences Hibernate uses on MySQL are handled.
+ */
+@Component
+public class IdSequenceAlignment {
+
+    private static final Logger log = LoggerFactory.getLogger(IdSequenceAlignment.class);
+
+    private final SessionFactoryImplementor sessionFactory;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public IdSequenceAlignment(EntityManagerFactory entityManagerFactory, JdbcTemplate jdbcTemplate) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void align() {
+        sessionFactory.getMappingMetamodel().forEachEntityDescriptor(persister -> {
+            if (!(persister.getGenerator() instanceof SequenceStyleGenerator generator)
+                    || generator.getDatabaseStructure().isPhysicalSequence()) {
+                return;
+            }
+            DatabaseStructure sequence = generator.getDatabaseStructure();
+            String table = persister.getIdentifierTableDetails().getTableName();
+            String idColumn = persister.getIdentifierColumnNames()[0];
+            Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(" + idColumn + "), 0) FROM " + table, Long.class);
+            // a pooled block hands out (next_val - increment, next_val], keep all of it above maxId
+            long next = maxId + sequence.getIncrementSize() + 1;
+            int updated = jdbcTemplate.update("UPDATE " + sequence.getPhysicalName().render()
+                    + " SET next_val = ? WHERE next_val < ?", next, next);
+            if (updated > 0) {
+                log.info("Moved {} past existing id {}", sequence.getPhysicalName().render(), maxId);
+            }
+        });
+    }
+}
@@ -1,10 +1,15 @@
 package com.example.appointmentsystem.config;
 
 import com.example.appointmentsystem.repository.UserRepository;
+import com.example.appointmentsystem.security.BoundedPasswordEncoder;
 import com.example.appointmentsystem.security.JwtAuthenticationFilter;
+import com.example.appointmentsystem.security.RateLimitFilter;
 import com.example.appointmentsystem.service.ApplicationUserDetailsService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -27,6 +32,7 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.security.web.AuthenticationEntryPoint;
 import org.springframework.security.web.access.AccessDeniedHandler;
 
+import java.time.Duration;
 import java.util.List;
 
 import static org.springframework.security.config.Customizer.withDefaults;
@@ -36,17 +42,22 @@ import static org.springframework.security.config.Customizer.withDefaults;
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtFilter;
+    private final RateLimitFilter rateLimitFilter;
     private final ApplicationUserDetailsService uds;
 
     @Autowired
-    public SecurityConfig(JwtAuthenticationFilter jwtFilter, ApplicationUserDetailsService uds) {
+    public SecurityConfig(JwtAuthenticationFilter jwtFilter, RateLimitFilter rateLimitFilter, ApplicationUserDetailsService uds) {
         this.jwtFilter = jwtFilter;
+        this.rateLimitFilter = rateLimitFilter;
         this.uds = uds;
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${app.password-hashing.threads:0}") int threads,
+                                           @Value("${app.password-hashing.queue-capacity:100}") int queueCapacity,
+                                           @Value("${app.password-hashing.wait-timeout:PT5S}") Duration waitTimeout,
+                                           MeterRegistry meterRegistry) {
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), threads, queueCapacity, waitTimeout, meterRegistry);
     }
 
     @Bean
@@ -70,15 +81,21 @@ public class SecurityConfig {
                 .cors(withDefaults())
                 .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // the request was authorized before it went async
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
                         .requestMatchers("/api/register/**", "/api/login", "/api/register/service", "/api/service-type").permitAll()
+                        // metrics expose traffic and timings, only health is public
+                        .requestMatchers(HttpMethod.GET, "/actuator/health").permitAll()
                         .requestMatchers( "/api/service/all", "/api/all-providers", "/api/appointment").authenticated()
                         .requestMatchers(HttpMethod.GET, "/api/service/available-slots",  "/api/appointments/all", "/api/user/profile",
                                 "/api/appointment","/api/provider/services", "/api/provider/service").authenticated()
                         .anyRequest().authenticated()
                 )
                 .authenticationProvider(provider)
-                .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class)
+                // after the JWT filter, so callers are limited by email once signed in
+                .addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class);
         return http.build();
     }
 
@@ -88,6 +105,7 @@ public class SecurityConfig {
         cors.setAllowedOrigins(List.of("http://localhost:5173"));
         cors.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         cors.setAllowedHeaders(List.of("*"));
+        cors.setExposedHeaders(List.of("ETag", "Idempotent-Replayed", "Retry-After"));
         cors.setAllowCredentials(true);
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/api/**", cors);
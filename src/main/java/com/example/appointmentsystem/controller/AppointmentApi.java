@@ -1,87 +1,296 @@
 package com.example.appointmentsystem.controller;
 
 import com.example.appointmentsystem.model.DTOs.AllAppointmentsResponse;
+import com.example.appointmentsystem.model.DTOs.AppointmentPage;
 import com.example.appointmentsystem.model.DTOs.AppointmentResponse;
 import com.example.appointmentsystem.model.DTOs.AvailabilityResponse;
+import com.example.appointmentsystem.model.DTOs.BatchAppointmentRequest;
+import com.example.appointmentsystem.model.DTOs.BatchAppointmentResponse;
 import com.example.appointmentsystem.model.DTOs.CreateAppointmentRequest;
+import com.example.appointmentsystem.model.DTOs.SlotHoldResponse;
+import com.example.appointmentsystem.model.enums.ExportFormat;
+import com.example.appointmentsystem.security.JwtPrincipal;
+import com.example.appointmentsystem.service.AppointmentExportService;
 import com.example.appointmentsystem.service.AppointmentService;
-import com.example.appointmentsystem.util.JwtUtils;
-import jakarta.servlet.http.HttpServletRequest;
+import com.example.appointmentsystem.service.BookingQueue;
+import com.example.appointmentsystem.service.BookingService;
+import com.example.appointmentsystem.service.IdempotencyStore;
+import com.example.appointmentsystem.service.SlotHoldService;
+import com.example.appointmentsystem.util.PageCursor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.crossstore.ChangeSetPersister;
 import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @CrossOrigin(origins = "http://localhost:5173")
 public class AppointmentApi {
 
+    private static final int MAX_BATCH_SIZE = 100;
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 0, 0);
+
     private final AppointmentService appointmentService;
 
-    private final JwtUtils jwt;
+    private final BookingService bookingService;
+
+    private final BookingQueue bookingQueue;
+
+    private final IdempotencyStore idempotencyStore;
+
+    private final SlotHoldService slotHoldService;
+
+    private final AppointmentExportService appointmentExportService;
 
     @Autowired
-    public AppointmentApi(AppointmentService appointmentService, JwtUtils jwt) {
+    public AppointmentApi(AppointmentService appointmentService, BookingService bookingService, BookingQueue bookingQueue, IdempotencyStore idempotencyStore, SlotHoldService slotHoldService, AppointmentExportService appointmentExportService) {
         this.appointmentService = appointmentService;
-        this.jwt = jwt;
+        this.bookingService = bookingService;
+        this.bookingQueue = bookingQueue;
+        this.idempotencyStore = idempotencyStore;
+        this.slotHoldService = slotHoldService;
+        this.appointmentExportService = appointmentExportService;
     }
 
     @GetMapping("/api/appointments/available-slots")
-    public ResponseEntity<AvailabilityResponse> getAvailableSlotsForDay(@RequestParam long serviceId, @RequestParam("date") String dateAsString) {
+    public ResponseEntity<AvailabilityResponse> getAvailableSlotsForDay(@RequestParam long serviceId,
+                                                                        @RequestParam("date") String dateAsString,
+                                                                        WebRequest webRequest) {
         LocalDate date = LocalDate.parse(dateAsString);
+        String etag = appointmentService.getAvailabilityETag(serviceId, date);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
         AvailabilityResponse res = appointmentService.getAvailableSlotsForDay(serviceId, date);
+        return ResponseEntity.status(HttpStatus.OK).eTag(etag).cacheControl(CacheControl.noCache()).body(res);
+    }
+
+    @GetMapping("/api/appointments/available-slots/range")
+    public ResponseEntity<List<AvailabilityResponse>> getAvailableSlotsForRange(@RequestParam long serviceId,
+                                                                                @RequestParam("from") String fromAsString,
+                                                                                @RequestParam("to") String toAsString) {
+        LocalDate from = LocalDate.parse(fromAsString);
+        LocalDate to = LocalDate.parse(toAsString);
+        List<AvailabilityResponse> res = appointmentService.getAvailableSlotsForRange(serviceId, from, to);
         return ResponseEntity.status(HttpStatus.OK).cacheControl(CacheControl.noStore()).body(res);
     }
 
     @PostMapping("/api/appointment")
-    public ResponseEntity<AppointmentResponse> create(
+    public CompletableFuture<ResponseEntity<AppointmentResponse>> create(
             @RequestBody CreateAppointmentRequest req,
-            HttpServletRequest request
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @AuthenticationPrincipal JwtPrincipal principal
     ) throws ChangeSetPersister.NotFoundException {
-        String token = jwt.getTokenFromRequest(request);
-        String email = jwt.extractEmail(token);
+        String email = principal.email();
+
+        if (idempotencyKey == null) {
+            return book(email, req).thenApply(created -> ResponseEntity.status(HttpStatus.CREATED).body(created));
+        }
 
-        AppointmentResponse created = appointmentService.createAppointment(
+        return idempotencyStore.execute(email, idempotencyKey, req, () -> book(email, req))
+                .thenApply(outcome -> ResponseEntity.status(HttpStatus.CREATED)
+                        .header("Idempotent-Replayed", String.valueOf(outcome.replayed()))
+                        .body(outcome.result()));
+    }
+
+    @PostMapping("/api/appointments/batch")
+    public ResponseEntity<BatchAppointmentResponse> createBatch(
+            @RequestBody BatchAppointmentRequest req,
+            @AuthenticationPrincipal JwtPrincipal principal
+    ) throws ChangeSetPersister.NotFoundException {
+        String email = principal.email();
+
+        BatchAppointmentResponse res = bookingService.bookBatch(
                 email,
                 req.serviceId(),
                 req.providerId(),
-                req.startAt()
+                occurrences(req),
+                req.allOrNothing()
         );
 
-        return ResponseEntity.status(HttpStatus.CREATED).body(created);
+        HttpStatus status = res.booked() > 0 ? HttpStatus.CREATED : HttpStatus.CONFLICT;
+        return ResponseEntity.status(status).body(res);
+    }
+
+    @PostMapping("/api/appointments/holds")
+    public ResponseEntity<SlotHoldResponse> hold(
+            @RequestBody CreateAppointmentRequest req,
+            @AuthenticationPrincipal JwtPrincipal principal
+    ) throws ChangeSetPersister.NotFoundException {
+        String email = principal.email();
+
+        SlotHoldResponse hold = bookingService.hold(email, req.serviceId(), req.providerId(), req.startAt());
+        return ResponseEntity.status(HttpStatus.CREATED).body(hold);
+    }
+
+    @DeleteMapping("/api/appointments/holds/{holdId}")
+    public ResponseEntity<Void> releaseHold(
+            @PathVariable UUID holdId,
+            @AuthenticationPrincipal JwtPrincipal principal
+    ) {
+        String email = principal.email();
+        slotHoldService.release(holdId, email);
+        return ResponseEntity.noContent().build();
     }
 
     @GetMapping("/api/appointments/all")
-    public ResponseEntity<List<AllAppointmentsResponse>> getAllAppointments(HttpServletRequest request) {
-        String token = jwt.getTokenFromRequest(request);
-        String email = jwt.extractEmail(token);
-        List<AllAppointmentsResponse> list = appointmentService.geAllAppointmentsForUser(email);
+    public ResponseEntity<List<AllAppointmentsResponse>> getAllAppointments(@RequestParam(defaultValue = "false") boolean history,
+                                                                            @AuthenticationPrincipal JwtPrincipal principal) {
+        String email = principal.email();
+        List<AllAppointmentsResponse> list = appointmentService.geAllAppointmentsForUser(email, history);
         return ResponseEntity.status(HttpStatus.OK).body(list);
     }
 
     @GetMapping("/api/provider/appointments/all")
-    public ResponseEntity<List<AllAppointmentsResponse>> getAllAppointmentsForProvider(HttpServletRequest request) {
-        String token = jwt.getTokenFromRequest(request);
-        String email = jwt.extractEmail(token);
-        List<AllAppointmentsResponse> list = appointmentService.geAllAppointmentByProvider(email);
+    public ResponseEntity<List<AllAppointmentsResponse>> getAllAppointmentsForProvider(@RequestParam(defaultValue = "false") boolean history,
+                                                                                       @AuthenticationPrincipal JwtPrincipal principal) {
+        String email = principal.email();
+        List<AllAppointmentsResponse> list = appointmentService.geAllAppointmentByProvider(email, history);
         return ResponseEntity.status(HttpStatus.OK).body(list);
     }
 
+    @GetMapping("/api/provider/appointments/export")
+    public ResponseEntity<StreamingResponseBody> exportForProvider(@RequestParam(defaultValue = "ndjson") String format,
+                                                                   @AuthenticationPrincipal JwtPrincipal principal) {
+        String email = principal.email();
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "format must be ndjson or csv");
+        }
+        // resolved up front so an unknown user fails before any byte is sent
+        long providerId = appointmentExportService.providerId(email);
+
+        StreamingResponseBody body = out -> appointmentExportService.exportForProvider(providerId, exportFormat, out);
+        return ResponseEntity.status(HttpStatus.OK)
+                .contentType(MediaType.parseMediaType(exportFormat.contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("appointments." + exportFormat.extension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
+    @GetMapping("/api/appointments/page")
+    public ResponseEntity<AppointmentPage> getAppointmentsPage(@RequestParam(required = false) String cursor,
+                                                               @RequestParam(required = false) Integer limit,
+                                                               @RequestParam(defaultValue = "false") boolean upcoming,
+                                                               @RequestParam(required = false) String from,
+                                                               @RequestParam(required = false) String to,
+                                                               @RequestParam(defaultValue = "false") boolean history,
+                                                               @AuthenticationPrincipal JwtPrincipal principal) {
+        return page(principal.email(), false, cursor, limit, upcoming, from, to, history);
+    }
+
+    @GetMapping("/api/provider/appointments/page")
+    public ResponseEntity<AppointmentPage> getProviderAppointmentsPage(@RequestParam(required = false) String cursor,
+                                                                       @RequestParam(required = false) Integer limit,
+                                                                       @RequestParam(defaultValue = "false") boolean upcoming,
+                                                                       @RequestParam(required = false) String from,
+                                                                       @RequestParam(required = false) String to,
+                                                                       @RequestParam(defaultValue = "false") boolean history,
+                                                                       @AuthenticationPrincipal JwtPrincipal principal) {
+        return page(principal.email(), true, cursor, limit, upcoming, from, to, history);
+    }
+
     @DeleteMapping("/api/appointment/{id}")
     public ResponseEntity<Void> delete(
             @PathVariable Long id,
-            HttpServletRequest request
+            @AuthenticationPrincipal JwtPrincipal principal
     ) {
-        String token = jwt.getTokenFromRequest(request);
-        String email = jwt.extractEmail(token);
+        String email = principal.email();
         appointmentService.deleteAppointment(id, email);
         return ResponseEntity.noContent().build();
     }
 
+    private ResponseEntity<AppointmentPage> page(String email,
+                                                 boolean asProvider,
+                                                 String cursor,
+                                                 Integer limit,
+                                                 boolean upcoming,
+                                                 String from,
+                                                 String to,
+                                                 boolean history) {
+        int size = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        LocalDateTime start = from == null ? EARLIEST : LocalDate.parse(from).atStartOfDay();
+        if (upcoming) {
+            LocalDateTime now = LocalDateTime.now(AppointmentService.BUSINESS_ZONE);
+            start = start.isAfter(now) ? start : now;
+        }
+        LocalDateTime end = to == null ? LATEST : LocalDate.parse(to).plusDays(1).atStartOfDay();
+        PageCursor position;
+        try {
+            position = cursor == null ? null : PageCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+
+        AppointmentPage page = appointmentService.getAppointmentsPage(email, asProvider, position, start, end, size, history);
+        return ResponseEntity.status(HttpStatus.OK).body(page);
+    }
+
+    private CompletableFuture<AppointmentResponse> book(String email, CreateAppointmentRequest req)
+            throws ChangeSetPersister.NotFoundException {
+        if (bookingQueue.isEnabled()) {
+            return bookingQueue.submit(email, req.serviceId(), req.providerId(), req.startAt());
+        }
+        return CompletableFuture.completedFuture(
+                bookingService.book(email, req.serviceId(), req.providerId(), req.startAt()));
+    }
+
+    private static List<LocalDateTime> occurrences(BatchAppointmentRequest req) {
+        boolean listed = req.startTimes() != null && !req.startTimes().isEmpty();
+        boolean recurring = req.firstStartAt() != null || req.recurrence() != null || req.count() != null;
+        if (listed == recurring) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Provide either startTimes or firstStartAt, recurrence and count");
+        }
+        if (listed) {
+            if (req.startTimes().contains(null)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "startTimes must not contain null");
+            }
+            if (req.startTimes().size() > MAX_BATCH_SIZE) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + MAX_BATCH_SIZE + " occurrences per batch");
+            }
+            return req.startTimes();
+        }
+        if (req.firstStartAt() == null || req.recurrence() == null || req.count() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "firstStartAt, recurrence and count are all required");
+        }
+        if (req.count() < 1 || req.count() > MAX_BATCH_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "count must be between 1 and " + MAX_BATCH_SIZE);
+        }
+        List<LocalDateTime> starts = new ArrayList<>(req.count());
+        for (int i = 0; i < req.count(); i++) {
+            starts.add(req.recurrence().occurrence(req.firstStartAt(), i));
+        }
+        return starts;
+    }
 }
@@ -2,8 +2,8 @@ package com.example.appointmentsystem.controller;
 
 import com.example.appointmentsystem.model.DTOs.*;
 import com.example.appointmentsystem.model.enums.ServiceType;
+import com.example.appointmentsystem.security.JwtPrincipal;
 import com.example.appointmentsystem.service.ServiceService;
-import com.example.appointmentsystem.util.JwtUtils;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,6 +14,7 @@ import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
@@ -28,13 +29,10 @@ public class ServiceApi {
 
     private final ServiceService serviceService;
 
-    private final JwtUtils jwt;
-
 
     @Autowired
-    public ServiceApi(ServiceService serviceService, JwtUtils jwt) {
+    public ServiceApi(ServiceService serviceService) {
         this.serviceService = serviceService;
-        this.jwt = jwt;
     }
 
     @GetMapping("/api/service-type")
@@ -57,9 +55,8 @@ public class ServiceApi {
     }
 
     @GetMapping("/api/provider/services")
-    public ResponseEntity<UpdateServiceDTO> getAllServices(HttpServletRequest request) {
-        String token = jwt.getTokenFromRequest(request);
-        String email = jwt.extractEmail(token);
+    public ResponseEntity<UpdateServiceDTO> getAllServices(@AuthenticationPrincipal JwtPrincipal principal) {
+        String email = principal.email();
         UpdateServiceDTO dto = serviceService.getServiceDataByProviderEmail(email);
         return ResponseEntity.status(HttpStatus.OK).body(dto);
     }
@@ -2,10 +2,10 @@ package com.example.appointmentsystem.controller;
 
 import com.example.appointmentsystem.model.DTOs.*;
 import com.example.appointmentsystem.model.enums.Role;
+import com.example.appointmentsystem.security.JwtPrincipal;
 import com.example.appointmentsystem.service.ApplicationUserDetailsService;
 import com.example.appointmentsystem.service.UserService;
 import com.example.appointmentsystem.util.JwtUtils;
-import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -14,6 +14,7 @@ import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
@@ -78,9 +79,8 @@ public class UserApi {
     }
 
     @GetMapping("/api/user/profile")
-    public ResponseEntity<ProfileDTO> getProfileData(HttpServletRequest request) {
-        String token = jwt.getTokenFromRequest(request);
-        String email = jwt.extractEmail(token);
+    public ResponseEntity<ProfileDTO> getProfileData(@AuthenticationPrincipal JwtPrincipal principal) {
+        String email = principal.email();
         ProfileDTO dto =  userService.getProfileData(email);
         return ResponseEntity.ok(dto);
     }
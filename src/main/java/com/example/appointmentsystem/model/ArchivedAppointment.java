@@ -0,0 +1,72 @@
+package com.example.appointmentsystem.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDateTime;
+
+/**
+ * An appointment that ended before the retention window and was moved out of
+ * {@code appointments} by {@link com.example.appointmentsystem.service.AppointmentArchiver}.
+ * Same columns and ids as the hot table, so history listings can merge both.
+ */
+@Entity
+@Immutable
+@Table(name = "appointments_archive", indexes = {
+        @Index(name = "idx_appointments_archive_client_start", columnList = "client_id, start_time, id"),
+        @Index(name = "idx_appointments_archive_provider_start", columnList = "provider_id, start_time, id")
+})
+public class ArchivedAppointment {
+
+    @Id
+    private long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "client_id", nullable = false)
+    private User client;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "provider_id", nullable = false)
+    private User provider;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "service_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Service service;
+
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "schedule_id", nullable = false)
+    private ArchivedSchedule schedule;
+
+    @Column(name = "start_time")
+    private LocalDateTime startTime;
+
+    public ArchivedAppointment() {
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public User getClient() {
+        return client;
+    }
+
+    public User getProvider() {
+        return provider;
+    }
+
+    public Service getService() {
+        return service;
+    }
+
+    public ArchivedSchedule getSchedule() {
+        return schedule;
+    }
+
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.appointmentsystem.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * A booked slot moved out of {@code schedules} together with its appointment. Same columns
+ * and ids as the hot table; rows are written only by the archiver.
+ */
+@Entity
+@Immutable
+@Table(name = "schedules_archive", indexes = {
+        @Index(name = "idx_schedules_archive_provider_start", columnList = "provider_id, start_time")
+})
+public class ArchivedSchedule {
+
+    @Id
+    private long id;
+
+    private Long version;
+
+    @Column(nullable = false, name = "start_time")
+    private LocalDateTime startTime;
+
+    @Column(nullable = false, name = "end_time")
+    private LocalDateTime endTime;
+
+    @Column(nullable = false, name = "is_available")
+    private Boolean isAvailable;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "provider_id")
+    private User provider;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "service_id", nullable = false)
+    private Service service;
+
+    public ArchivedSchedule() {
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+
+    public LocalDateTime getEndTime() {
+        return endTime;
+    }
+
+    public Boolean getAvailable() {
+        return isAvailable;
+    }
+
+    public User getProvider() {
+        return provider;
+    }
+
+    public Service getService() {
+        return service;
+    }
+}
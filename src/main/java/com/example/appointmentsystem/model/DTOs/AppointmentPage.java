@@ -0,0 +1,8 @@
+package com.example.appointmentsystem.model.DTOs;
+
+import java.util.List;
+
+public record AppointmentPage(
+        List<AllAppointmentsResponse> items,
+        String nextCursor
+) {}
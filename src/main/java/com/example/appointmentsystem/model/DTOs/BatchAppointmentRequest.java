@@ -0,0 +1,20 @@
+package com.example.appointmentsystem.model.DTOs;
+
+import com.example.appointmentsystem.model.enums.Recurrence;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Either {@code startTimes}, or {@code firstStartAt} with a {@code recurrence} and a
+ * {@code count}. With {@code allOrNothing} nothing is booked unless every occurrence is free.
+ */
+public record BatchAppointmentRequest(
+        Long serviceId,
+        Long providerId,
+        List<LocalDateTime> startTimes,
+        LocalDateTime firstStartAt,
+        Recurrence recurrence,
+        Integer count,
+        boolean allOrNothing
+) {}
@@ -0,0 +1,9 @@
+package com.example.appointmentsystem.model.DTOs;
+
+import java.util.List;
+
+public record BatchAppointmentResponse(
+        int booked,
+        int rejected,
+        List<BatchItemResult> items
+) {}
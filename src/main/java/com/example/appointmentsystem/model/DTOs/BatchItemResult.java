@@ -0,0 +1,9 @@
+package com.example.appointmentsystem.model.DTOs;
+
+import java.time.LocalDateTime;
+
+public record BatchItemResult(
+        LocalDateTime startAt,
+        AppointmentResponse appointment,
+        String error
+) {}
@@ -0,0 +1,14 @@
+package com.example.appointmentsystem.model.DTOs;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record SlotHoldResponse(
+        UUID holdId,
+        Long serviceId,
+        Long providerId,
+        LocalDateTime startAt,
+        LocalDateTime endAt,
+        Instant expiresAt
+) {}
@@ -0,0 +1,6 @@
+package com.example.appointmentsystem.model.DTOs;
+
+import java.time.LocalDateTime;
+
+public record TimeRangeDTO(LocalDateTime start, LocalDateTime end) {
+}
@@ -6,11 +6,14 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "schedules")
+@Table(name = "schedules",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"provider_id", "start_time"}),
+        indexes = @Index(name = "idx_schedules_available", columnList = "is_available, id"))
 public class Schedule  {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "schedules_seq")
+    @SequenceGenerator(name = "schedules_seq", sequenceName = "schedules_seq", allocationSize = 50)
     private long id;
 
     @Version
@@ -25,11 +28,11 @@ public class Schedule  {
     @Column(nullable = false,name = "is_available")
     private Boolean isAvailable;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "provider_id")
     private User provider;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "service_id", nullable = false)
     private Service service;
 
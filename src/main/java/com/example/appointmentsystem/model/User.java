@@ -2,15 +2,23 @@ package com.example.appointmentsystem.model;
 
 import com.example.appointmentsystem.model.enums.Role;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NaturalIdCache
 @Table(name = "users")
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private long id;
 
     @Column(nullable = false, name = "first_name")
@@ -19,6 +27,7 @@ public class User {
     @Column(nullable = false, name = "last_name")
     private String lastName;
 
+    @NaturalId
     @Column(unique = true, nullable = false)
     private String email;
 
@@ -0,0 +1,7 @@
+package com.example.appointmentsystem.model.enums;
+
+public enum BookingStrategy {
+    PESSIMISTIC,
+    OPTIMISTIC,
+    ATOMIC
+}
@@ -0,0 +1,23 @@
+package com.example.appointmentsystem.model.enums;
+
+import java.time.LocalDateTime;
+
+public enum Recurrence {
+    DAILY,
+    WEEKLY,
+    BIWEEKLY,
+    MONTHLY;
+
+    /**
+     * The {@code index}-th occurrence counted from {@code first}, which is occurrence 0.
+     * Monthly series keep the day of month, clamped to the length of shorter months.
+     */
+    public LocalDateTime occurrence(LocalDateTime first, int index) {
+        return switch (this) {
+            case DAILY -> first.plusDays(index);
+            case WEEKLY -> first.plusWeeks(index);
+            case BIWEEKLY -> first.plusWeeks(2L * index);
+            case MONTHLY -> first.plusMonths(index);
+        };
+    }
+}
@@ -1,9 +1,16 @@
 package com.example.appointmentsystem.repository;
 
 import com.example.appointmentsystem.model.Appointment;
-import com.example.appointmentsystem.model.User;
+import com.example.appointmentsystem.model.DTOs.AllAppointmentsResponse;
+import com.example.appointmentsystem.model.DTOs.BookedIntervalDTO;
+import com.example.appointmentsystem.model.DTOs.TimeRangeDTO;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -11,35 +18,135 @@ import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
+
+    /**
+     * Fetch plan for cancelling: the client to check ownership and the slot to free.
+     */
+    @EntityGraph(attributePaths = {"client", "schedule"})
+    Optional<Appointment> findWithClientAndScheduleById(long id);
+
     @Query("""
-              SELECT a FROM Appointment a
+              SELECT new com.example.appointmentsystem.model.DTOs.TimeRangeDTO(s.startTime, s.endTime)
+              FROM Appointment a
+              JOIN a.schedule s
               WHERE a.provider.id = :providerId
-                AND a.schedule.startTime < :dayEnd
-                AND a.schedule.endTime   > :dayStart
+                AND s.startTime < :rangeEnd
+                AND s.endTime   > :rangeStart
             """)
-    List<Appointment> findOverlappingOnDay(@Param("providerId") long providerId,
-                                           @Param("dayStart") LocalDateTime dayStart,
-                                           @Param("dayEnd") LocalDateTime dayEnd);
+    List<TimeRangeDTO> findBookedRanges(@Param("providerId") long providerId,
+                                        @Param("rangeStart") LocalDateTime rangeStart,
+                                        @Param("rangeEnd") LocalDateTime rangeEnd);
 
     @Query("""
             SELECT CASE WHEN COUNT(a) > 0 THEN TRUE ELSE FALSE END
             FROM Appointment a
             JOIN a.schedule s
             WHERE a.provider.id = :providerId
-              AND a.service.id = :serviceId
               AND s.startTime < :endAt
               AND s.endTime > :startAt
             """)
     boolean existsOverlapping(@Param("providerId") Long providerId,
-                              @Param("serviceId") Long serviceId,
                               @Param("startAt") LocalDateTime startAt,
                               @Param("endAt") LocalDateTime endAt);
 
-    List<Appointment> getAllByClient(User user);
+    @Query("""
+              SELECT new com.example.appointmentsystem.model.DTOs.BookedIntervalDTO(a.id, s.startTime, s.endTime)
+              FROM Appointment a
+              JOIN a.schedule s
+              WHERE a.provider.id = :providerId
+                AND s.endTime > :from
+            """)
+    List<BookedIntervalDTO> findBookedIntervalsEndingAfter(@Param("providerId") long providerId,
+                                                           @Param("from") LocalDateTime from);
 
-    List<Appointment> getAllByProvider(User user);
-}
+    @Query("""
+              SELECT new com.example.appointmentsystem.model.DTOs.AllAppointmentsResponse(
+                  a.id, sv.name, CONCAT(p.firstName, ' ', p.lastName), sv.durationMinutes, sv.price,
+                  sv.serviceType, s.startTime, s.endTime)
+              FROM Appointment a
+              JOIN a.client c
+              JOIN a.provider p
+              JOIN a.service sv
+              JOIN a.schedule s
+              WHERE c.email = :email
+              ORDER BY s.startTime, a.id
+            """)
+    List<AllAppointmentsResponse> findAllForClient(@Param("email") String email);
+
+    @Query("""
+              SELECT new com.example.appointmentsystem.model.DTOs.AllAppointmentsResponse(
+                  a.id, sv.name, CONCAT(c.firstName, ' ', c.lastName), sv.durationMinutes, sv.price,
+                  sv.serviceType, s.startTime, s.endTime)
+              FROM Appointment a
+              JOIN a.client c
+              JOIN a.provider p
+              JOIN a.service sv
+              JOIN a.schedule s
+              WHERE p.email = :email
+              ORDER BY s.startTime, a.id
+            """)
+    List<AllAppointmentsResponse> findAllForProvider(@Param("email") String email);
 
+    @Query("""
+              SELECT new com.example.appointmentsystem.model.DTOs.AllAppointmentsResponse(
+                  a.id, sv.name, CONCAT(p.firstName, ' ', p.lastName), sv.durationMinutes, sv.price,
+                  sv.serviceType, s.startTime, s.endTime)
+              FROM Appointment a
+              JOIN a.provider p
+              JOIN a.service sv
+              JOIN a.schedule s
+              WHERE a.client.id = :userId
+                AND a.startTime < :to
+                AND (a.startTime > :afterStart OR (a.startTime = :afterStart AND a.id > :afterId))
+              ORDER BY a.startTime, a.id
+            """)
+    List<AllAppointmentsResponse> findPageForClient(@Param("userId") long userId,
+                                                    @Param("afterStart") LocalDateTime afterStart,
+                                                    @Param("afterId") long afterId,
+                                                    @Param("to") LocalDateTime to,
+                                                    Limit limit);
+
+    @Query("""
+              SELECT new com.example.appointmentsystem.model.DTOs.AllAppointmentsResponse(
+                  a.id, sv.name, CONCAT(c.firstName, ' ', c.lastName), sv.durationMinutes, sv.price,
+                  sv.serviceType, s.startTime, s.endTime)
+              FROM Appointment a
+              JOIN a.client c
+              JOIN a.service sv
+              JOIN a.schedule s
+              WHERE a.provider.id = :userId
+                AND a.startTime < :to
+                AND (a.startTime > :afterStart OR (a.startTime = :afterStart AND a.id > :afterId))
+              ORDER BY a.startTime, a.id
+            """)
+    List<AllAppointmentsResponse> findPageForProvider(@Param("userId") long userId,
+                                                      @Param("afterStart") LocalDateTime afterStart,
+                                                      @Param("afterId") long afterId,
+                                                      @Param("to") LocalDateTime to,
+                                                      Limit limit);
+
+    /**
+     * Every appointment of the provider, in start order, read through a server-side cursor
+     * so the rows never sit in memory together. Must be consumed inside a transaction.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+              SELECT new com.example.appointmentsystem.model.DTOs.AllAppointmentsResponse(
+                  a.id, sv.name, CONCAT(c.firstName, ' ', c.lastName), sv.durationMinutes, sv.price,
+                  sv.serviceType, s.startTime, s.endTime)
+              FROM Appointment a
+              JOIN a.client c
+              JOIN a.service sv
+              JOIN a.schedule s
+              WHERE a.provider.id = :providerId
+              ORDER BY a.startTime, a.id
+            """)
+    Stream<AllAppointmentsResponse> streamForProvider(@Param("providerId") long providerId);
+}
@@ -0,0 +1,76 @@
+package com.example.appointmentsystem.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Set-based moves from the hot tables to their {@code _archive} copies. Every method works
+ * on one chunk and must run inside the caller's transaction, so a chunk is either fully
+ * moved or not at all.
+ */
+@Repository
+public class ArchiveJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public ArchiveJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Locks and returns the oldest appointments starting before {@code cutoff}, seeking on
+     * {@code idx_appointments_start}.
+     */
+    public List<ArchivableAppointment> lockAppointmentsBefore(LocalDateTime cutoff, int limit) {
+        return jdbcTemplate.query("""
+                SELECT id, schedule_id FROM appointments
+                WHERE start_time < ?
+                ORDER BY start_time, id
+                LIMIT ?
+                FOR UPDATE
+                """, (rs, i) -> new ArchivableAppointment(rs.getLong(1), rs.getLong(2)),
+                Timestamp.valueOf(cutoff), limit);
+    }
+
+    /**
+     * Copies the appointments and their slots into the archive, then deletes them.
+     *
+     * @return the number of appointments moved
+     */
+    public int moveAppointments(List<ArchivableAppointment> chunk) {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        Object[] ids = chunk.stream().map(ArchivableAppointment::id).toArray();
+        Object[] scheduleIds = chunk.stream().map(ArchivableAppointment::scheduleId).toArray();
+        String idList = placeholders(ids.length);
+
+        jdbcTemplate.update("""
+                INSERT INTO schedules_archive (id, version, start_time, end_time, is_available, provider_id, service_id)
+                SELECT id, version, start_time, end_time, is_available, provider_id, service_id
+                FROM schedules WHERE id IN (%s)
+                """.formatted(idList), scheduleIds);
+        jdbcTemplate.update("""
+                INSERT INTO appointments_archive (id, client_id, provider_id, service_id, schedule_id, start_time)
+                SELECT id, client_id, provider_id, service_id, schedule_id, start_time
+                FROM appointments WHERE id IN (%s)
+                """.formatted(idList), ids);
+        int moved = jdbcTemplate.update("DELETE FROM appointments WHERE id IN (" + idList + ")", ids);
+        jdbcTemplate.update("DELETE FROM schedules WHERE id IN (" + idList + ")", scheduleIds);
+        return moved;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    public record ArchivableAppointment(long id, long scheduleId) {
+    }
+}
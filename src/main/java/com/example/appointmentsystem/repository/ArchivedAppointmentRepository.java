@@ -0,0 +1,85 @@
+package com.example.appointmentsystem.repository;
+
+import com.example.appointmentsystem.model.ArchivedAppointment;
+import com.example.appointmentsystem.model.DTOs.AllAppointmentsResponse;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * The history listings of {@link AppointmentRepository}, over the archive tables.
+ */
+@Repository
+public interface ArchivedAppointmentRepository extends JpaRepository<ArchivedAppointment, Long> {
+
+    @Query("""
+              SELECT new com.example.appointmentsystem.model.DTOs.AllAppointmentsResponse(
+                  a.id, sv.name, CONCAT(p.firstName, ' ', p.lastName), sv.durationMinutes, sv.price,
+                  sv.serviceType, s.startTime, s.endTime)
+              FROM ArchivedAppointment a
+              JOIN a.client c
+              JOIN a.provider p
+              JOIN a.service sv
+              JOIN a.schedule s
+              WHERE c.email = :email
+              ORDER BY a.startTime, a.id
+            """)
+    List<AllAppointmentsResponse> findAllForClient(@Param("email") String email);
+
+    @Query("""
+              SELECT new com.example.appointmentsystem.model.DTOs.AllAppointmentsResponse(
+                  a.id, sv.name, CONCAT(c.firstName, ' ', c.lastName), sv.durationMinutes, sv.price,
+                  sv.serviceType, s.startTime, s.endTime)
+              FROM ArchivedAppointment a
+              JOIN a.client c
+              JOIN a.provider p
+              JOIN a.service sv
+              JOIN a.schedule s
+              WHERE p.email = :email
+              ORDER BY a.startTime, a.id
+            """)
+    List<AllAppointmentsResponse> findAllForProvider(@Param("email") String email);
+
+    @Query("""
+              SELECT new com.example.appointmentsystem.model.DTOs.AllAppointmentsResponse(
+                  a.id, sv.name, CONCAT(p.firstName, ' ', p.lastName), sv.durationMinutes, sv.price,
+                  sv.serviceType, s.startTime, s.endTime)
+              FROM ArchivedAppointment a
+              JOIN a.provider p
+              JOIN a.service sv
+              JOIN a.schedule s
+              WHERE a.client.id = :userId
+                AND a.startTime < :to
+                AND (a.startTime > :afterStart OR (a.startTime = :afterStart AND a.id > :afterId))
+              ORDER BY a.startTime, a.id
+            """)
+    List<AllAppointmentsResponse> findPageForClient(@Param("userId") long userId,
+                                                    @Param("afterStart") LocalDateTime afterStart,
+                                                    @Param("afterId") long afterId,
+                                                    @Param("to") LocalDateTime to,
+                                                    Limit limit);
+
+    @Query("""
+              SELECT new com.example.appointmentsystem.model.DTOs.AllAppointmentsResponse(
+                  a.id, sv.name, CONCAT(c.firstName, ' ', c.lastName), sv.durationMinutes, sv.price,
+                  sv.serviceType, s.startTime, s.endTime)
+              FROM ArchivedAppointment a
+              JOIN a.client c
+              JOIN a.service sv
+              JOIN a.schedule s
+              WHERE a.provider.id = :userId
+                AND a.startTime < :to
+                AND (a.startTime > :afterStart OR (a.startTime = :afterStart AND a.id > :afterId))
+              ORDER BY a.startTime, a.id
+            """)
+    List<AllAppointmentsResponse> findPageForProvider(@Param("userId") long userId,
+                                                      @Param("afterStart") LocalDateTime afterStart,
+                                                      @Param("afterId") long afterId,
+                                                      @Param("to") LocalDateTime to,
+                                                      Limit limit);
+}
@@ -0,0 +1,180 @@
+package com.example.appointmentsystem.repository;
+
+import com.example.appointmentsystem.model.Appointment;
+import com.example.appointmentsystem.model.DTOs.TimeRangeDTO;
+import com.example.appointmentsystem.model.Schedule;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Plain JDBC statements for the single-round-trip booking path. They rely on the unique
+ * {@code schedules(provider_id, start_time)} constraint instead of row locks, and must run
+ * inside the caller's transaction. Ids come from {@link EntityIdAllocator}, the same pooled
+ * blocks Hibernate draws from.
+ */
+@Repository
+public class BookingJdbcRepository {
+
+    private static final String INSERT_BOOKED_SLOT = """
+            INSERT INTO schedules (id, version, start_time, end_time, is_available, provider_id, service_id)
+            VALUES (?, 0, ?, ?, FALSE, ?, ?)
+            """;
+
+    /**
+     * A booked schedule row always has its appointment, so a booked row overlapping the
+     * range is an overlapping appointment.
+     */
+    private static final String INSERT_BOOKED_SLOT_IF_FREE = """
+            INSERT INTO schedules (id, version, start_time, end_time, is_available, provider_id, service_id)
+            SELECT ?, 0, ?, ?, FALSE, ?, ? FROM DUAL
+            WHERE NOT EXISTS (
+                SELECT 1 FROM schedules s
+                WHERE s.provider_id = ? AND s.is_available = FALSE AND s.start_time < ? AND s.end_time > ?
+            )
+            """;
+
+    private static final String INSERT_APPOINTMENT = """
+            INSERT INTO appointments (id, client_id, provider_id, service_id, schedule_id, start_time)
+            VALUES (?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final EntityIdAllocator idAllocator;
+
+    @Autowired
+    public BookingJdbcRepository(JdbcTemplate jdbcTemplate, EntityIdAllocator idAllocator) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.idAllocator = idAllocator;
+    }
+
+    /**
+     * Inserts the slot already marked as booked.
+     *
+     * @throws org.springframework.dao.DuplicateKeyException if the provider already has a slot at {@code startAt}
+     */
+    public long insertBookedSlot(long providerId, long serviceId, LocalDateTime startAt, LocalDateTime endAt) {
+        long id = idAllocator.next(Schedule.class);
+        jdbcTemplate.update(INSERT_BOOKED_SLOT,
+                id, Timestamp.valueOf(startAt), Timestamp.valueOf(endAt), providerId, serviceId);
+        return id;
+    }
+
+    /**
+     * Inserts the slot already marked as booked unless a booked slot of the provider
+     * overlaps it, checking and writing in one statement.
+     *
+     * @return the slot id, or empty when a booked slot overlaps
+     * @throws org.springframework.dao.DuplicateKeyException if the provider has a free slot at {@code startAt}
+     */
+    public Optional<Long> insertBookedSlotIfFree(long providerId, long serviceId, LocalDateTime startAt, LocalDateTime endAt) {
+        long id = idAllocator.next(Schedule.class);
+        int inserted = jdbcTemplate.update(INSERT_BOOKED_SLOT_IF_FREE,
+                id, Timestamp.valueOf(startAt), Timestamp.valueOf(endAt), providerId, serviceId,
+                providerId, Timestamp.valueOf(endAt), Timestamp.valueOf(startAt));
+        return inserted == 0 ? Optional.empty() : Optional.of(id);
+    }
+
+    /**
+     * Flips an existing free slot to booked for {@code serviceId}.
+     *
+     * @return the slot id, or empty when the slot is already booked
+     */
+    public Optional<Long> claimAvailableSlot(long providerId, long serviceId, LocalDateTime startAt, LocalDateTime endAt) {
+        int claimed = jdbcTemplate.update("""
+                UPDATE schedules
+                SET is_available = FALSE, version = version + 1, service_id = ?, end_time = ?
+                WHERE provider_id = ? AND start_time = ? AND is_available = TRUE
+                """, serviceId, Timestamp.valueOf(endAt), providerId, Timestamp.valueOf(startAt));
+        if (claimed == 0) {
+            return Optional.empty();
+        }
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM schedules WHERE provider_id = ? AND start_time = ?",
+                Long.class, providerId, Timestamp.valueOf(startAt));
+        return ids.stream().findFirst();
+    }
+
+    public long insertAppointment(long clientId, long providerId, long serviceId, long scheduleId, LocalDateTime startAt) {
+        long id = idAllocator.next(Appointment.class);
+        jdbcTemplate.update(INSERT_APPOINTMENT,
+                id, clientId, providerId, serviceId, scheduleId, Timestamp.valueOf(startAt));
+        return id;
+    }
+
+    /**
+     * Availability of the provider's existing slots starting in {@code [from, to]}, by start time.
+     */
+    public Map<LocalDateTime, Boolean> findSlotAvailability(long providerId, LocalDateTime from, LocalDateTime to) {
+        Map<LocalDateTime, Boolean> slots = new HashMap<>();
+        jdbcTemplate.query("""
+                SELECT start_time, is_available FROM schedules
+                WHERE provider_id = ? AND start_time BETWEEN ? AND ?
+                """, rs -> {
+            slots.put(rs.getTimestamp(1).toLocalDateTime(), rs.getBoolean(2));
+        }, providerId, Timestamp.valueOf(from), Timestamp.valueOf(to));
+        return slots;
+    }
+
+    /**
+     * Batched {@link #insertBookedSlot}; ids come back in the order of {@code ranges}.
+     *
+     * @throws org.springframework.dao.DuplicateKeyException if any of the slots already exists
+     */
+    public List<Long> insertBookedSlots(long providerId, long serviceId, List<TimeRangeDTO> ranges) {
+        List<Long> ids = idAllocator.next(Schedule.class, ranges.size());
+        jdbcTemplate.batchUpdate(INSERT_BOOKED_SLOT, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setLong(1, ids.get(i));
+                ps.setTimestamp(2, Timestamp.valueOf(ranges.get(i).start()));
+                ps.setTimestamp(3, Timestamp.valueOf(ranges.get(i).end()));
+                ps.setLong(4, providerId);
+                ps.setLong(5, serviceId);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return ranges.size();
+            }
+        });
+        return ids;
+    }
+
+    /**
+     * Batched {@link #insertAppointment}; {@code startTimes} line up with {@code scheduleIds}
+     * and ids come back in the same order.
+     */
+    public List<Long> insertAppointments(long clientId, long providerId, long serviceId,
+                                         List<Long> scheduleIds, List<LocalDateTime> startTimes) {
+        List<Long> ids = idAllocator.next(Appointment.class, scheduleIds.size());
+        jdbcTemplate.batchUpdate(INSERT_APPOINTMENT, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setLong(1, ids.get(i));
+                ps.setLong(2, clientId);
+                ps.setLong(3, providerId);
+                ps.setLong(4, serviceId);
+                ps.setLong(5, scheduleIds.get(i));
+                ps.setTimestamp(6, Timestamp.valueOf(startTimes.get(i)));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return scheduleIds.size();
+            }
+        });
+        return ids;
+    }
+}
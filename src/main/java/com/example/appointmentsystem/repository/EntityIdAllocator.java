@@ -0,0 +1,61 @@
+package com.example.appointmentsystem.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hands out ids from an entity's own Hibernate generator, so rows written with plain JDBC
+ * share the pooled id blocks of the rows Hibernate writes. Most calls are served from
+ * memory; one in {@code allocationSize} reaches the database.
+ */
+@Component
+public class EntityIdAllocator {
+
+    private final EntityManager entityManager;
+
+    private final SessionFactoryImplementor sessionFactory;
+
+    private final Map<Class<?>, IdentifierGenerator> generators = new ConcurrentHashMap<>();
+
+    @Autowired
+    public EntityIdAllocator(EntityManager entityManager, EntityManagerFactory entityManagerFactory) {
+        this.entityManager = entityManager;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+    }
+
+    /**
+     * Must be called inside the transaction that writes the row.
+     */
+    public long next(Class<?> entityType) {
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        return ((Number) generator(entityType).generate(session, null)).longValue();
+    }
+
+    public List<Long> next(Class<?> entityType, int count) {
+        List<Long> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(next(entityType));
+        }
+        return ids;
+    }
+
+    private IdentifierGenerator generator(Class<?> entityType) {
+        return generators.computeIfAbsent(entityType, type -> {
+            if (!(sessionFactory.getMappingMetamodel().getEntityDescriptor(type).getGenerator()
+                    instanceof IdentifierGenerator generator)) {
+                throw new IllegalStateException(type.getSimpleName() + " ids are not generated before insert.");
+            }
+            return generator;
+        });
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.appointmentsystem.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Statements for reclaiming past {@code schedules} rows that are free and referenced by no
+ * appointment: slots freed by a cancellation and slots created by a booking that did not
+ * complete. Nothing can book them any more, so such a row carries nothing. Future free
+ * rows are left for booking to claim again.
+ */
+@Repository
+public class FreeSlotJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public FreeSlotJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Ids of up to {@code limit} free, unreferenced slots starting before {@code before},
+     * after {@code afterId}, seeking on {@code idx_schedules_available}. A plain read:
+     * nothing is locked.
+     */
+    public List<Long> findReclaimable(LocalDateTime before, long afterId, int limit) {
+        return jdbcTemplate.queryForList("""
+                SELECT s.id FROM schedules s
+                WHERE s.is_available = TRUE
+                  AND s.id > ?
+                  AND s.start_time < ?
+                  AND NOT EXISTS (SELECT 1 FROM appointments a WHERE a.schedule_id = s.id)
+                ORDER BY s.id
+                LIMIT ?
+                """, Long.class, afterId, before, limit);
+    }
+
+    /**
+     * Deletes those of {@code ids} that still start before {@code before} and are still
+     * free and unreferenced; a slot booked since {@link #findReclaimable} is kept.
+     *
+     * @return the number of slots deleted
+     */
+    public int deleteIfReclaimable(LocalDateTime before, List<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        List<Object> args = new ArrayList<>(ids);
+        args.add(before);
+        return jdbcTemplate.update("""
+                DELETE FROM schedules
+                WHERE id IN (%s)
+                  AND is_available = TRUE
+                  AND start_time < ?
+                  AND NOT EXISTS (SELECT 1 FROM appointments a WHERE a.schedule_id = schedules.id)
+                """.formatted(String.join(", ", Collections.nCopies(ids.size(), "?"))), args.toArray());
+    }
+}
@@ -18,13 +18,19 @@ public interface ScheduleRepository extends JpaRepository<Schedule, Long> {
     @Query("""
         select s from Schedule s
         where s.provider.id = :providerId
-          and s.service.id  = :serviceId
           and s.startTime  = :startTime
     """)
     Optional<Schedule> lockSlot(@Param("providerId") Long providerId,
-                                      @Param("serviceId")  Long serviceId,
                                       @Param("startTime") LocalDateTime startTime);
 
+    @Query("""
+        select s from Schedule s
+        where s.provider.id = :providerId
+          and s.startTime  = :startTime
+    """)
+    Optional<Schedule> findSlot(@Param("providerId") Long providerId,
+                                @Param("startTime") LocalDateTime startTime);
+
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("select s from Schedule s where s.id = :id")
     Optional<Schedule> lockById(@Param("id") Long id);
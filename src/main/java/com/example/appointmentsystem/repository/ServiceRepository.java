@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface ServiceRepository extends JpaRepository<Service, Long> {
@@ -15,5 +16,11 @@ public interface ServiceRepository extends JpaRepository<Service, Long> {
               WHERE s.provider = :provider
             """)
     Service findByProvider(@Param("provider")User provider);
+
+    @Query("""
+              SELECT s FROM Service s
+              JOIN FETCH s.provider
+            """)
+    List<Service> findAllWithProvider();
 }
 
@@ -0,0 +1,14 @@
+package com.example.appointmentsystem.repository;
+
+import com.example.appointmentsystem.model.User;
+
+import java.util.Optional;
+
+public interface UserNaturalIdRepository {
+
+    /**
+     * Looks the user up by natural id, so repeat lookups are served from the second-level
+     * cache instead of a query.
+     */
+    Optional<User> findByEmail(String email);
+}
@@ -6,12 +6,9 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
-import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
-    Optional<User> findByEmail(String email);
-
+public interface UserRepository extends JpaRepository<User, Long>, UserNaturalIdRepository {
     List<User> getAllByRole(Role role);
 }
 
@@ -2,7 +2,10 @@ package com.example.appointmentsystem.repository;
 
 import com.example.appointmentsystem.model.User;
 import com.example.appointmentsystem.model.WorkingDay;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.time.DayOfWeek;
@@ -11,8 +14,10 @@ import java.util.Optional;
 
 @Repository
 public interface WorkingDayRepository extends JpaRepository<WorkingDay, Long> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<WorkingDay> findByProviderIdAndDayOfWeek(long id, DayOfWeek dayOfWeek);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<WorkingDay> findByProviderId(long id);
 }
 
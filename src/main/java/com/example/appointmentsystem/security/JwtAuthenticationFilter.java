@@ -17,19 +17,20 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import java.util.Date;
 import java.util.List;
-import java.util.Objects;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private JwtUtils jwtUtils;
 
+    private final VerifiedTokenCache verifiedTokens;
+
     @Autowired
-    public JwtAuthenticationFilter(JwtUtils jwtUtils) {
+    public JwtAuthenticationFilter(JwtUtils jwtUtils, VerifiedTokenCache verifiedTokens) {
         super();
         this.jwtUtils = jwtUtils;
+        this.verifiedTokens = verifiedTokens;
     }
 
     @Override
@@ -49,26 +50,23 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         try {
-            String username = jwtUtils.extractEmail(jwt);
-
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                if (jwtUtils.isTokenValid(jwt, username)) {
-                    String role = jwtUtils.extractRole(jwt);
-
-                    var authorities = (role == null || role.isBlank())
-                            ? List.<SimpleGrantedAuthority>of()
-                            : List.of(new SimpleGrantedAuthority(
-                            role.startsWith("ROLE_") ? role : "ROLE_" + role
-                    ));
-
-                    var authentication = new UsernamePasswordAuthenticationToken(
-                            username, null, authorities);
-                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-
-                    SecurityContextHolder.getContext().setAuthentication(authentication);
-                } else {
-                    throw new IllegalArgumentException("Session expired!");
-                }
+            // at most one verification per request, none for a token seen before;
+            // controllers read the principal
+            JwtPrincipal principal = verifiedTokens.verify(jwt);
+
+            if (principal.email() != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                String role = principal.role();
+                var authorities = (role == null || role.isBlank())
+                        ? List.<SimpleGrantedAuthority>of()
+                        : List.of(new SimpleGrantedAuthority(
+                        role.startsWith("ROLE_") ? role : "ROLE_" + role
+                ));
+
+                var authentication = new UsernamePasswordAuthenticationToken(
+                        principal, null, authorities);
+                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+
+                SecurityContextHolder.getContext().setAuthentication(authentication);
             }
         } catch (ExpiredJwtException e) {
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
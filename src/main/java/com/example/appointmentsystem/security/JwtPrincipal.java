@@ -0,0 +1,17 @@
+package com.example.appointmentsystem.security;
+
+import java.security.Principal;
+import java.time.Instant;
+
+/**
+ * The verified claims of the request's bearer token, set as the authentication principal by
+ * {@link JwtAuthenticationFilter}. Controllers take it with {@code @AuthenticationPrincipal}
+ * instead of parsing the token again.
+ */
+public record JwtPrincipal(String email, String role, Instant expiresAt) implements Principal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
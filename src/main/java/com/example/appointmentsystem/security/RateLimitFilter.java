@@ -0,0 +1,118 @@
+package com.example.appointmentsystem.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-caller budgets on the API, applied after {@link JwtAuthenticationFilter} so a signed-in
+ * caller is limited by email and anyone else by remote address. The first policy matching
+ * the request applies; each has its own bucket per caller. Budgets are set with
+ * {@code app.rate-limit.<policy>.capacity} and {@code .per-second}.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final AntPathMatcher PATHS = new AntPathMatcher();
+
+    private final TokenBucketRateLimiter limiter;
+
+    private final boolean enabled;
+
+    private final List<Policy> policies;
+
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public RateLimitFilter(TokenBucketRateLimiter limiter, Environment environment, MeterRegistry meterRegistry) {
+        this.limiter = limiter;
+        this.enabled = environment.getProperty("app.rate-limit.enabled", Boolean.class, true);
+        this.meterRegistry = meterRegistry;
+        this.policies = List.of(
+                policy(environment, "availability", HttpMethod.GET, List.of("/api/appointments/available-slots/**"), 20, 10),
+                policy(environment, "booking", HttpMethod.POST,
+                        List.of("/api/appointment", "/api/appointments/batch", "/api/appointments/holds"), 5, 1),
+                policy(environment, "auth", HttpMethod.POST, List.of("/api/login", "/api/register/**"), 10, 0.5),
+                policy(environment, "default", null, List.of("/api/**"), 50, 25));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Policy policy = enabled ? match(request) : null;
+        if (policy == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long waitNanos = limiter.tryAcquire(policy.name(), caller(request), policy.budget());
+        if (waitNanos > 0) {
+            policy.rejected().increment();
+            long retryAfter = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+            response.setContentType("application/json");
+            response.getWriter().write("{\"error\": \"TooManyRequests\", \"message\": \"Rate limit exceeded, retry later.\"}");
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private Policy match(HttpServletRequest request) {
+        if (HttpMethod.OPTIONS.matches(request.getMethod())) {
+            return null;
+        }
+        String path = request.getServletPath();
+        for (Policy policy : policies) {
+            if ((policy.method() == null || policy.method().matches(request.getMethod()))
+                    && policy.patterns().stream().anyMatch(pattern -> PATHS.match(pattern, path))) {
+                return policy;
+            }
+        }
+        return null;
+    }
+
+    private static String caller(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof JwtPrincipal principal) {
+            return principal.email();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private Policy policy(Environment environment, String name, HttpMethod method, List<String> patterns,
+                          int capacity, double perSecond) {
+        TokenBucketRateLimiter.Budget budget = new TokenBucketRateLimiter.Budget(
+                environment.getProperty("app.rate-limit." + name + ".capacity", Integer.class, capacity),
+                environment.getProperty("app.rate-limit." + name + ".per-second", Double.class, perSecond));
+        Counter rejected = Counter.builder("rate.limit.rejected")
+                .description("Requests refused with 429 by the rate limiter")
+                .tag("policy", name)
+                .register(meterRegistry);
+        return new Policy(name, method, patterns, budget, rejected);
+    }
+
+    private record Policy(String name,
+                          HttpMethod method,
+                          List<String> patterns,
+                          TokenBucketRateLimiter.Budget budget,
+                          Counter rejected) {
+    }
+}
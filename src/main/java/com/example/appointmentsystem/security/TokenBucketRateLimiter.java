@@ -0,0 +1,101 @@
+package com.example.appointmentsystem.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets per (policy, caller), each a single {@link AtomicLong} updated by CAS in the
+ * GCRA form: the bucket stores the time at which it will be full again, so taking a token
+ * is one compare-and-set and no thread ever blocks. Buckets live in a bounded Caffeine map,
+ * which is itself striped, and are dropped after {@code idle} without use. As long as
+ * {@code idle} exceeds the slowest budget's refill time ({@code capacity / perSecond}), a
+ * dropped bucket had refilled anyway, so dropping it loses nothing.
+ */
+@Component
+public class TokenBucketRateLimiter {
+
+    private final Cache<BucketKey, AtomicLong> buckets;
+
+    private final Ticker ticker;
+
+    @Autowired
+    public TokenBucketRateLimiter(@Value("${app.rate-limit.max-keys:1000000}") long maxKeys,
+                                  @Value("${app.rate-limit.idle:PT10M}") Duration idle,
+                                  MeterRegistry meterRegistry) {
+        this(maxKeys, idle, meterRegistry, Ticker.systemTicker());
+    }
+
+    TokenBucketRateLimiter(long maxKeys, Duration idle, MeterRegistry meterRegistry, Ticker ticker) {
+        this.ticker = ticker;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(idle)
+                .ticker(ticker)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, buckets, "rate.limit.buckets");
+    }
+
+    /**
+     * Takes a token from {@code key}'s bucket for {@code policy}.
+     *
+     * @return 0 when a token was taken, otherwise the nanoseconds until one will be available
+     */
+    public long tryAcquire(String policy, String key, Budget budget) {
+        long now = ticker.read();
+        AtomicLong fullAt = buckets.get(new BucketKey(policy, key), k -> new AtomicLong(now));
+        long interval = budget.intervalNanos();
+        long burst = budget.burstNanos();
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + interval;
+            long wait = next - now - burst;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    long size() {
+        return buckets.estimatedSize();
+    }
+
+    void cleanUp() {
+        buckets.cleanUp();
+    }
+
+    /**
+     * {@code capacity} requests at once, refilled at {@code perSecond}.
+     */
+    public record Budget(int capacity, double perSecond) {
+
+        public Budget {
+            if (capacity < 1 || perSecond <= 0) {
+                throw new IllegalArgumentException("capacity and perSecond must be positive.");
+            }
+        }
+
+        long intervalNanos() {
+            return (long) (1_000_000_000L / perSecond);
+        }
+
+        long burstNanos() {
+            return capacity * intervalNanos();
+        }
+    }
+
+    private record BucketKey(String policy, String key) {
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.appointmentsystem.security;
+
+import com.example.appointmentsystem.util.JwtUtils;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Tokens already verified by {@link JwtUtils#parse}, keyed by their SHA-256 digest so the
+ * cache never holds a usable token. A repeat token skips signature verification and claim
+ * decoding. Each entry drops out when its token expires; tokens without an expiry are not
+ * cached. A max size of zero turns the cache off.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final JwtUtils jwtUtils;
+
+    private final Cache<ByteBuffer, JwtPrincipal> verified;
+
+    private final boolean enabled;
+
+    private final Clock clock;
+
+    @Autowired
+    public VerifiedTokenCache(JwtUtils jwtUtils,
+                              @Value("${app.jwt.verified-cache.max-size:100000}") long maxSize,
+                              MeterRegistry meterRegistry) {
+        this(jwtUtils, maxSize, meterRegistry, Ticker.systemTicker(), Clock.systemUTC());
+    }
+
+    /**
+     * {@code clock} tells the time token expiries are compared with, {@code ticker} drives
+     * the cache's own expiry; tests move both together.
+     */
+    VerifiedTokenCache(JwtUtils jwtUtils, long maxSize, MeterRegistry meterRegistry, Ticker ticker, Clock clock) {
+        this.jwtUtils = jwtUtils;
+        this.enabled = maxSize > 0;
+        this.clock = clock;
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(Math.max(0, maxSize))
+                .expireAfter(new UntilTokenExpiry(clock))
+                .ticker(ticker)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verified, "jwt.verified");
+    }
+
+    /**
+     * The claims of {@code token}, verified now or on an earlier request.
+     *
+     * @throws io.jsonwebtoken.JwtException as {@link JwtUtils#parse} does
+     */
+    public JwtPrincipal verify(String token) {
+        if (!enabled) {
+            return jwtUtils.parse(token);
+        }
+        ByteBuffer digest = digest(token);
+        JwtPrincipal cached = verified.getIfPresent(digest);
+        if (cached != null && cached.expiresAt().isAfter(clock.instant())) {
+            return cached;
+        }
+        // parse again so an expired token fails the way it always has
+        JwtPrincipal principal = jwtUtils.parse(token);
+        if (principal.expiresAt() != null) {
+            verified.put(digest, principal);
+        }
+        return principal;
+    }
+
+    /**
+     * Lives until the token's own expiry; reads and updates don't extend it.
+     */
+    private static final class UntilTokenExpiry implements Expiry<ByteBuffer, JwtPrincipal> {
+
+        private final Clock clock;
+
+        private UntilTokenExpiry(Clock clock) {
+            this.clock = clock;
+        }
+
+        @Override
+        public long expireAfterCreate(ByteBuffer digest, JwtPrincipal principal, long currentTime) {
+            return Math.max(0, Duration.between(clock.instant(), principal.expiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer digest, JwtPrincipal principal, long currentTime, long currentDuration) {
+            return expireAfterCreate(digest, principal, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer digest, JwtPrincipal principal, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    private static ByteBuffer digest(String token) {
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
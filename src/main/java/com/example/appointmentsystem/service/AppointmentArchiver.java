@@ -0,0 +1,92 @@
+package com.example.appointmentsystem.service;
+
+import com.example.appointmentsystem.repository.ArchiveJdbcRepository;
+import com.example.appointmentsystem.repository.ArchiveJdbcRepository.ArchivableAppointment;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.util.List;
+
+/**
+ * Keeps {@code appointments} and {@code schedules} down to a rolling window. Appointments
+ * starting more than {@code app.archive.retention} ago move, with their slots, to the
+ * {@code _archive} tables. Each chunk is its own short transaction, so the job never holds
+ * locks on more than {@code chunk-size} rows. Free slots are left to {@link ScheduleReaper}.
+ * <p>
+ * Booking never looks at the archive. Listings read it only when history is asked for.
+ */
+@Component
+public class AppointmentArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(AppointmentArchiver.class);
+
+    private final ArchiveJdbcRepository archiveRepository;
+
+    private final TransactionTemplate transactions;
+
+    private final boolean enabled;
+
+    private final Period retention;
+
+    private final int chunkSize;
+
+    private final Counter archivedAppointments;
+
+    @Autowired
+    public AppointmentArchiver(ArchiveJdbcRepository archiveRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${app.archive.enabled:true}") boolean enabled,
+                               @Value("${app.archive.retention:P90D}") Period retention,
+                               @Value("${app.archive.chunk-size:1000}") int chunkSize,
+                               MeterRegistry meterRegistry) {
+        this.archiveRepository = archiveRepository;
+        this.transactions = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.retention = retention;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.archivedAppointments = Counter.builder("archive.appointments.moved")
+                .description("Appointments moved to the archive tables")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.archive.interval:PT1H}", initialDelayString = "${app.archive.initial-delay:PT10M}")
+    public void archiveExpired() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now(AppointmentService.BUSINESS_ZONE).minus(retention);
+        int moved = archiveBefore(cutoff);
+        if (moved > 0) {
+            log.info("Archived {} appointments starting before {}", moved, cutoff);
+        }
+    }
+
+    /**
+     * Moves every appointment starting before {@code cutoff}, chunk by chunk.
+     *
+     * @return the number of appointments moved
+     */
+    public int archiveBefore(LocalDateTime cutoff) {
+        int total = 0;
+        int moved;
+        do {
+            moved = transactions.execute(status -> {
+                List<ArchivableAppointment> chunk = archiveRepository.lockAppointmentsBefore(cutoff, chunkSize);
+                return archiveRepository.moveAppointments(chunk);
+            });
+            archivedAppointments.increment(moved);
+            total += moved;
+        } while (moved == chunkSize);
+        return total;
+    }
+}
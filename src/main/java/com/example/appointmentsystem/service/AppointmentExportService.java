@@ -0,0 +1,107 @@
+package com.example.appointmentsystem.service;
+
+import com.example.appointmentsystem.model.DTOs.AllAppointmentsResponse;
+import com.example.appointmentsystem.model.enums.ExportFormat;
+import com.example.appointmentsystem.repository.AppointmentRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes a provider's appointments to a stream row by row as they come off the database
+ * cursor, so an export holds one row in memory however long the history is.
+ */
+@Service
+public class AppointmentExportService {
+
+    private static final String CSV_HEADER = "id,service,client,durationMinutes,price,serviceType,start,end";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final AppointmentRepository appointmentRepository;
+
+    private final ReferenceDataCache referenceData;
+
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public AppointmentExportService(AppointmentRepository appointmentRepository,
+                                    ReferenceDataCache referenceData,
+                                    ObjectMapper objectMapper) {
+        this.appointmentRepository = appointmentRepository;
+        this.referenceData = referenceData;
+        this.objectMapper = objectMapper;
+    }
+
+    public long providerId(String email) {
+        return referenceData.userId(email);
+    }
+
+    /**
+     * Writes every appointment of the provider to {@code out} and flushes it, leaving it open.
+     *
+     * @return the number of rows written
+     */
+    @Transactional(readOnly = true)
+    public long exportForProvider(long providerId, ExportFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        if (format == ExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+        long rows = 0;
+        try (Stream<AllAppointmentsResponse> stream = appointmentRepository.streamForProvider(providerId)) {
+            Iterator<AllAppointmentsResponse> it = stream.iterator();
+            while (it.hasNext()) {
+                AllAppointmentsResponse row = it.next();
+                if (format == ExportFormat.CSV) {
+                    writeCsv(writer, row);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(row));
+                }
+                writer.write('\n');
+                rows++;
+            }
+        }
+        writer.flush();
+        return rows;
+    }
+
+    private static void writeCsv(Writer writer, AllAppointmentsResponse row) throws IOException {
+        writer.write(String.valueOf(row.id()));
+        writer.write(',');
+        writer.write(csvField(row.name()));
+        writer.write(',');
+        writer.write(csvField(row.userNames()));
+        writer.write(',');
+        writer.write(String.valueOf(row.durationInMinutes()));
+        writer.write(',');
+        writer.write(String.valueOf(row.price()));
+        writer.write(',');
+        writer.write(String.valueOf(row.serviceType()));
+        writer.write(',');
+        writer.write(String.valueOf(row.startDateTime()));
+        writer.write(',');
+        writer.write(String.valueOf(row.endDateTime()));
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -2,32 +2,61 @@ package com.example.appointmentsystem.service;
 
 import com.example.appointmentsystem.model.Appointment;
 import com.example.appointmentsystem.model.DTOs.AllAppointmentsResponse;
+import com.example.appointmentsystem.model.DTOs.AppointmentPage;
 import com.example.appointmentsystem.model.DTOs.AppointmentResponse;
 import com.example.appointmentsystem.model.DTOs.AvailabilityResponse;
+import com.example.appointmentsystem.model.DTOs.BatchAppointmentResponse;
+import com.example.appointmentsystem.model.DTOs.BatchItemResult;
+import com.example.appointmentsystem.model.DTOs.TimeRangeDTO;
 import com.example.appointmentsystem.model.Schedule;
 import com.example.appointmentsystem.model.User;
 import com.example.appointmentsystem.model.WorkingDay;
+import com.example.appointmentsystem.model.enums.BookingStrategy;
 import com.example.appointmentsystem.repository.AppointmentRepository;
+import com.example.appointmentsystem.repository.ArchivedAppointmentRepository;
+import com.example.appointmentsystem.repository.BookingJdbcRepository;
 import com.example.appointmentsystem.repository.ScheduleRepository;
 import com.example.appointmentsystem.repository.ServiceRepository;
 import com.example.appointmentsystem.repository.WorkingDayRepository;
+import com.example.appointmentsystem.util.IntervalTree;
+import com.example.appointmentsystem.util.PageCursor;
+import com.example.appointmentsystem.util.SlotBitmap;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.crossstore.ChangeSetPersister;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.*;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class AppointmentService {
 
+    public static final ZoneId BUSINESS_ZONE = ZoneId.of("Europe/Sofia");
+
+    public static final int MAX_RANGE_DAYS = 62;
+
+    private static final Comparator<AllAppointmentsResponse> LISTING_ORDER =
+            Comparator.comparing(AllAppointmentsResponse::startDateTime).thenComparing(AllAppointmentsResponse::id);
+
     private final AppointmentRepository appointmentRepository;
 
+    private final ArchivedAppointmentRepository archivedAppointmentRepository;
+
     private final ServiceRepository serviceRepository;
 
     private final WorkingDayRepository workingDayRepository;
@@ -36,19 +65,52 @@ public class AppointmentService {
 
     private final UserService userService;
 
+    private final AvailabilityCache availabilityCache;
+
+    private final AvailabilityVersions availabilityVersions;
+
+    private final ReferenceDataCache referenceData;
+
+    private final BookingJdbcRepository bookingJdbcRepository;
+
+    private final ProviderIntervalIndex intervalIndex;
+
+    private final SlotHoldService slotHolds;
+
+    private final ReadYourWritesTracker readYourWrites;
+
     @Autowired
-    public AppointmentService(AppointmentRepository appointmentRepository, ServiceRepository serviceRepository, WorkingDayRepository workingDayRepository, ScheduleRepository scheduleRepository, UserService userService) {
+    public AppointmentService(AppointmentRepository appointmentRepository, ArchivedAppointmentRepository archivedAppointmentRepository, ServiceRepository serviceRepository, WorkingDayRepository workingDayRepository, ScheduleRepository scheduleRepository, UserService userService, AvailabilityCache availabilityCache, AvailabilityVersions availabilityVersions, ReferenceDataCache referenceData, BookingJdbcRepository bookingJdbcRepository, ProviderIntervalIndex intervalIndex, SlotHoldService slotHolds, ReadYourWritesTracker readYourWrites) {
         this.appointmentRepository = appointmentRepository;
+        this.archivedAppointmentRepository = archivedAppointmentRepository;
         this.serviceRepository = serviceRepository;
         this.workingDayRepository = workingDayRepository;
         this.scheduleRepository = scheduleRepository;
         this.userService = userService;
+        this.availabilityCache = availabilityCache;
+        this.availabilityVersions = availabilityVersions;
+        this.referenceData = referenceData;
+        this.bookingJdbcRepository = bookingJdbcRepository;
+        this.intervalIndex = intervalIndex;
+        this.slotHolds = slotHolds;
+        this.readYourWrites = readYourWrites;
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public String getAvailabilityETag(long serviceId, LocalDate date) {
+        return availabilityVersions.etag(serviceId, date, () -> referenceData.service(serviceId)
+                .orElseThrow(() -> new NoSuchElementException("Service not found."))
+                .providerId());
     }
 
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public AvailabilityResponse getAvailableSlotsForDay(long serviceId, LocalDate date) {
-        com.example.appointmentsystem.model.Service service = serviceRepository.getById(serviceId);
+        return availabilityCache.get(serviceId, date, () -> loadAvailableSlotsForDay(serviceId, date));
+    }
+
+    private AvailabilityResponse loadAvailableSlotsForDay(long serviceId, LocalDate date) {
+        com.example.appointmentsystem.model.Service service = getServiceById(serviceId);
         User provider = service.getProvider();
-        ZoneId businessZone = ZoneId.of("Europe/Sofia");
         DayOfWeek dayOfWeek = date.getDayOfWeek();
         Optional<WorkingDay> workingDayOptional =
                 workingDayRepository.findByProviderIdAndDayOfWeek(provider.getId(), dayOfWeek);
@@ -56,93 +118,192 @@ public class AppointmentService {
         if (workingDayOptional.isEmpty()) {
             // Provider is off this day
             return new AvailabilityResponse(serviceId, provider.getId(), date,
-                    businessZone.getId(), service.getDurationMinutes(), List.of());
-        }
-
-        WorkingDay workingDay = workingDayOptional.get();
-        LocalTime workStart = workingDay.getStartTime();
-        LocalTime workEnd = workingDay.getEndTime();
-        int durationMinutes = service.getDurationMinutes();
-
-        // Build candidate slots
-        List<LocalDateTime> candidateStarts = new ArrayList<>();
-        LocalTime cursor = workStart;
-        while (!cursor.plusMinutes(durationMinutes).isAfter(workEnd)) {
-            candidateStarts.add(LocalDateTime.of(date, cursor));
-            cursor = cursor.plusMinutes(durationMinutes); // simple back-to-back stepping
+                    BUSINESS_ZONE.getId(), service.getDurationMinutes(), List.of());
         }
 
         // Fetch existing appointments for this provider on this date
         LocalDateTime dayStart = date.atStartOfDay();
         LocalDateTime dayEnd = date.plusDays(1).atStartOfDay();
-        List<Appointment> existingAppointments =
-                appointmentRepository.findOverlappingOnDay(provider.getId(), dayStart, dayEnd);
+        List<TimeRangeDTO> booked =
+                appointmentRepository.findBookedRanges(provider.getId(), dayStart, dayEnd);
 
-        // Build list of unavailable ranges
-        List<TimeRange> blockedRanges = existingAppointments.stream()
-                .map(a -> new TimeRange(a.getSchedule().getStartTime(), a.getSchedule().getEndTime()))
-                .toList();
+        return buildAvailability(service, provider.getId(), date, workingDayOptional.get(), booked);
+    }
+
+    /**
+     * Availability for every day of {@code [from, to]}, at most {@link #MAX_RANGE_DAYS} days.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<AvailabilityResponse> getAvailableSlotsForRange(long serviceId, LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "'to' must not be before 'from'");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Range must not exceed " + MAX_RANGE_DAYS + " days");
+        }
+        List<AvailabilityResponse> cached = new ArrayList<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            AvailabilityResponse day = availabilityCache.getIfPresent(serviceId, date);
+            if (day == null) {
+                break;
+            }
+            cached.add(day);
+        }
+        if (cached.size() == ChronoUnit.DAYS.between(from, to) + 1) {
+            return cached;
+        }
+
+        return availabilityCache.loadAll(() -> loadAvailableSlotsForRange(serviceId, from, to));
+    }
+
+    private List<AvailabilityResponse> loadAvailableSlotsForRange(long serviceId, LocalDate from, LocalDate to) {
+        com.example.appointmentsystem.model.Service service = getServiceById(serviceId);
+        long providerId = service.getProvider().getId();
+
+        Map<DayOfWeek, WorkingDay> weekTemplate = workingDayRepository.findByProviderId(providerId).stream()
+                .collect(Collectors.toMap(WorkingDay::getDayOfWeek, wd -> wd));
+
+        List<TimeRangeDTO> booked = appointmentRepository.findBookedRanges(
+                providerId, from.atStartOfDay(), to.plusDays(1).atStartOfDay());
+
+        // Bucket every booking into each day it touches, so each day only sees its own ranges
+        Map<LocalDate, List<TimeRangeDTO>> bookedByDay = new HashMap<>();
+        for (TimeRangeDTO range : booked) {
+            LocalDate first = range.start().toLocalDate().isBefore(from) ? from : range.start().toLocalDate();
+            LocalDate last = range.end().minusNanos(1).toLocalDate();
+            for (LocalDate d = first; !d.isAfter(last) && !d.isAfter(to); d = d.plusDays(1)) {
+                bookedByDay.computeIfAbsent(d, k -> new ArrayList<>()).add(range);
+            }
+        }
 
-        // Filter free slots
-        List<String> freeSlots = candidateStarts.stream()
-                .filter(start -> blockedRanges.stream().noneMatch(blocked ->
-                        overlaps(start, start.plusMinutes(durationMinutes),
-                                blocked.start(), blocked.end())))
-                .map(start -> start.toLocalTime().toString()) //"HH:mm"
+        List<AvailabilityResponse> days = new ArrayList<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            WorkingDay workingDay = weekTemplate.get(date.getDayOfWeek());
+            if (workingDay == null) {
+                days.add(new AvailabilityResponse(serviceId, providerId, date,
+                        BUSINESS_ZONE.getId(), service.getDurationMinutes(), List.of()));
+            } else {
+                days.add(buildAvailability(service, providerId, date, workingDay,
+                        bookedByDay.getOrDefault(date, List.of())));
+            }
+        }
+        return days;
+    }
+
+    private AvailabilityResponse buildAvailability(com.example.appointmentsystem.model.Service service,
+                                                   long providerId,
+                                                   LocalDate date,
+                                                   WorkingDay workingDay,
+                                                   List<TimeRangeDTO> booked) {
+        int durationMinutes = service.getDurationMinutes();
+
+        SlotBitmap day = SlotBitmap.forWindow(workingDay.getStartTime(), workingDay.getEndTime());
+        booked.forEach(range -> day.block(date, range.start(), range.end()));
+        slotHolds.heldRanges(providerId, date.atStartOfDay(), date.plusDays(1).atStartOfDay())
+                .forEach(range -> day.block(date, range.start(), range.end()));
+
+        List<String> freeSlots = day.freeSlots(workingDay.getStartTime(), workingDay.getEndTime(), durationMinutes)
+                .stream()
+                .map(LocalTime::toString) //"HH:mm"
                 .toList();
 
         return new AvailabilityResponse(
-                serviceId,
-                provider.getId(),
+                service.getId(),
+                providerId,
                 date,
-                businessZone.getId(),
+                BUSINESS_ZONE.getId(),
                 durationMinutes,
                 freeSlots
         );
     }
 
-    private boolean overlaps(LocalDateTime start1, LocalDateTime end1,
-                             LocalDateTime start2, LocalDateTime end2) {
-        return start1.isBefore(end2) && end1.isAfter(start2);
+    private com.example.appointmentsystem.model.Service getServiceById(long serviceId) {
+        return serviceRepository.findById(serviceId)
+                .orElseThrow(() -> new NoSuchElementException("Service not found."));
     }
 
+    /**
+     * One joined SELECT straight into the response, ordered by start time.
+     */
+    @Transactional(readOnly = true)
     public List<AllAppointmentsResponse> geAllAppointmentsForUser(String email) {
-        User user = userService.getUserByEmail(email);
-        List<Appointment> allByClient = appointmentRepository.getAllByClient(user);
-        List<AllAppointmentsResponse> allAppointments = new ArrayList<>();
-        allByClient.forEach(a -> {
-            AllAppointmentsResponse res = new AllAppointmentsResponse(a.getId(),
-                    a.getService().getName(),
-                    a.getProvider().getFirstName() + " " + a.getProvider().getLastName(),
-                    a.getService().getDurationMinutes(),
-                    a.getService().getPrice(),
-                    a.getService().getServiceType(),
-                    a.getSchedule().getStartTime(),
-                    a.getSchedule().getEndTime());
-            allAppointments.add(res);
-        });
-        return allAppointments;
+        return geAllAppointmentsForUser(email, false);
     }
 
+    /**
+     * With {@code includeHistory} the archived appointments are read too and merged in.
+     */
+    @Transactional(readOnly = true)
+    public List<AllAppointmentsResponse> geAllAppointmentsForUser(String email, boolean includeHistory) {
+        List<AllAppointmentsResponse> hot = appointmentRepository.findAllForClient(email);
+        return includeHistory ? merge(archivedAppointmentRepository.findAllForClient(email), hot, Integer.MAX_VALUE) : hot;
+    }
+
+    @Transactional(readOnly = true)
     public List<AllAppointmentsResponse> geAllAppointmentByProvider(String email) {
-        User user = userService.getUserByEmail(email);
-        List<Appointment> allByClient = appointmentRepository.getAllByProvider(user);
-        List<AllAppointmentsResponse> allAppointments = new ArrayList<>();
-        allByClient.forEach(a -> {
-            AllAppointmentsResponse res = new AllAppointmentsResponse(a.getId(),
-                    a.getService().getName(),
-                    a.getClient().getFirstName()+ " " + a.getClient().getLastName(),
-                    a.getService().getDurationMinutes(),
-                    a.getService().getPrice(),
-                    a.getService().getServiceType(),
-                    a.getSchedule().getStartTime(),
-                    a.getSchedule().getEndTime());
-            allAppointments.add(res);
-        });
-        return allAppointments;
+        return geAllAppointmentByProvider(email, false);
+    }
+
+    @Transactional(readOnly = true)
+    public List<AllAppointmentsResponse> geAllAppointmentByProvider(String email, boolean includeHistory) {
+        List<AllAppointmentsResponse> hot = appointmentRepository.findAllForProvider(email);
+        return includeHistory ? merge(archivedAppointmentRepository.findAllForProvider(email), hot, Integer.MAX_VALUE) : hot;
+    }
+
+    /**
+     * One page of the caller's appointments starting in {@code [from, to)}, in (start, id)
+     * order and after {@code cursor} when given. Each page is a seek on the
+     * (user, start_time, id) index, so its cost does not grow with the history. With
+     * {@code includeHistory} the same seek runs on the archive and the two are merged;
+     * the cursor stays valid across both.
+     */
+    @Transactional(readOnly = true)
+    public AppointmentPage getAppointmentsPage(String email,
+                                               boolean asProvider,
+                                               PageCursor cursor,
+                                               LocalDateTime from,
+                                               LocalDateTime to,
+                                               int limit,
+                                               boolean includeHistory) {
+        long userId = referenceData.userId(email);
+        LocalDateTime afterStart = cursor != null ? cursor.startTime() : from;
+        long afterId = cursor != null ? cursor.id() : -1;
+        // one extra row tells whether another page follows
+        Limit fetch = Limit.of(limit + 1);
+        List<AllAppointmentsResponse> rows = asProvider
+                ? appointmentRepository.findPageForProvider(userId, afterStart, afterId, to, fetch)
+                : appointmentRepository.findPageForClient(userId, afterStart, afterId, to, fetch);
+        if (includeHistory) {
+            List<AllAppointmentsResponse> archived = asProvider
+                    ? archivedAppointmentRepository.findPageForProvider(userId, afterStart, afterId, to, fetch)
+                    : archivedAppointmentRepository.findPageForClient(userId, afterStart, afterId, to, fetch);
+            rows = merge(archived, rows, limit + 1);
+        }
+        if (rows.size() <= limit) {
+            return new AppointmentPage(rows, null);
+        }
+        List<AllAppointmentsResponse> page = rows.subList(0, limit);
+        AllAppointmentsResponse last = page.get(limit - 1);
+        return new AppointmentPage(List.copyOf(page), new PageCursor(last.startDateTime(), last.id()).encode());
     }
 
-    private static record TimeRange(LocalDateTime start, LocalDateTime end) {
+    /**
+     * Merges two lists already in listing order, keeping at most {@code limit} rows.
+     */
+    private static List<AllAppointmentsResponse> merge(List<AllAppointmentsResponse> a,
+                                                       List<AllAppointmentsResponse> b,
+                                                       int limit) {
+        List<AllAppointmentsResponse> merged = new ArrayList<>(Math.min(limit, a.size() + b.size()));
+        int i = 0;
+        int j = 0;
+        while (merged.size() < limit && (i < a.size() || j < b.size())) {
+            if (j == b.size() || (i < a.size() && LISTING_ORDER.compare(a.get(i), b.get(j)) <= 0)) {
+                merged.add(a.get(i++));
+            } else {
+                merged.add(b.get(j++));
+            }
+        }
+        return merged;
     }
 
     public AppointmentResponse createAppointment(
@@ -151,6 +312,22 @@ public class AppointmentService {
             Long providerId,
             LocalDateTime startAt
     ) throws ChangeSetPersister.NotFoundException {
+        return createAppointment(email, serviceId, providerId, startAt, BookingStrategy.PESSIMISTIC);
+    }
+
+    /**
+     * With {@link BookingStrategy#OPTIMISTIC} the slot is read without a row lock and
+     * claimed through the {@code @Version} check on flush; a concurrent claim surfaces as
+     * an {@link org.springframework.dao.OptimisticLockingFailureException} for the caller
+     * to retry.
+     */
+    public AppointmentResponse createAppointment(
+            String email,
+            Long serviceId,
+            Long providerId,
+            LocalDateTime startAt,
+            BookingStrategy strategy
+    ) throws ChangeSetPersister.NotFoundException {
 
         com.example.appointmentsystem.model.Service serviceEntity =
                 serviceRepository.findById(serviceId)
@@ -162,47 +339,46 @@ public class AppointmentService {
         int durationMinutes = serviceEntity.getDurationMinutes();
         LocalDateTime endAt = startAt.plusMinutes(durationMinutes);
 
+        requireProviderService(serviceEntity.getProvider().getId(), providerId);
         validateWorkingWindow(providerId, startAt, endAt);
 
-        Optional<Schedule> lockedOpt = scheduleRepository.lockSlot(providerId, serviceId, startAt);
-
-        Schedule slot;
-        if (lockedOpt.isPresent()) {
-            slot = lockedOpt.get();
-        } else {
-            Schedule newSlot = new Schedule();
-            newSlot.setProvider(provider);
-            newSlot.setService(serviceEntity);
-            newSlot.setStartTime(startAt);
-            newSlot.setEndTime(endAt);
-            newSlot.setAvailable(Boolean.TRUE);
-            scheduleRepository.saveAndFlush(newSlot);
-
-            // Lock again to avoid races
-            slot = scheduleRepository.lockSlot(providerId, serviceId, startAt)
-                    .orElseThrow(() -> new IllegalStateException("Slot creation race, please retry."));
-        }
+        Schedule slot = strategy == BookingStrategy.OPTIMISTIC
+                ? findSlot(provider, serviceEntity, startAt, endAt)
+                : lockSlot(provider, serviceEntity, startAt, endAt);
 
         if (Boolean.FALSE.equals(slot.getAvailable())) {
             throw new IllegalStateException("Time slot already booked.");
         }
 
-        boolean hasOverlap = appointmentRepository.existsOverlapping(
-                providerId, serviceId, startAt, endAt
-        );
-        if (hasOverlap) {
+        if (slotHolds.isHeldByOther(email, providerId, startAt, endAt)) {
+            throw new IllegalStateException("Time slot is held by another client.");
+        }
+        if (intervalIndex.overlaps(providerId, startAt, endAt)) {
             throw new IllegalStateException("Overlapping appointment exists.");
         }
 
+        // a freed slot may have been created for another service of this provider
+        slot.setService(serviceEntity);
+        slot.setEndTime(endAt);
         slot.setAvailable(Boolean.FALSE);
-        scheduleRepository.save(slot);
+        if (strategy == BookingStrategy.OPTIMISTIC) {
+            // version-checked claim, fail here rather than at commit
+            scheduleRepository.saveAndFlush(slot);
+        } else {
+            scheduleRepository.save(slot);
+        }
 
         Appointment appointment = new Appointment();
         appointment.setClient(client);
         appointment.setProvider(provider);
         appointment.setService(serviceEntity);
         appointment.setSchedule(slot);
+        appointment.setStartTime(slot.getStartTime());
         Appointment saved = appointmentRepository.save(appointment);
+        availabilityCache.evictProviderDay(providerId, startAt.toLocalDate());
+        intervalIndex.added(providerId, saved.getId(), startAt, endAt);
+        slotHolds.consume(email, providerId, startAt);
+        readYourWrites.recordWrite(email);
 
         return new AppointmentResponse(
                 saved.getId(),
@@ -215,6 +391,260 @@ public class AppointmentService {
         );
     }
 
+    /**
+     * Booking path for {@link BookingStrategy#ATOMIC}: reference data comes from
+     * {@link ReferenceDataCache} and the slot is taken by inserting it as booked unless a
+     * booked slot overlaps, falling back to claiming a freed row when the unique
+     * (provider, start) key already exists. No entities are loaded and no row is locked:
+     * a new slot costs two statements, a freed one four.
+     */
+    public AppointmentResponse createAppointmentAtomic(
+            String email,
+            Long serviceId,
+            Long providerId,
+            LocalDateTime startAt
+    ) throws ChangeSetPersister.NotFoundException {
+        ReferenceDataCache.ServiceRef serviceRef = referenceData.service(serviceId)
+                .orElseThrow(ChangeSetPersister.NotFoundException::new);
+        long clientId = referenceData.userId(email);
+
+        int durationMinutes = serviceRef.durationMinutes();
+        LocalDateTime endAt = startAt.plusMinutes(durationMinutes);
+
+        requireProviderService(serviceRef.providerId(), providerId);
+        validateWorkingWindow(providerId, startAt, endAt);
+
+        if (slotHolds.isHeldByOther(email, providerId, startAt, endAt)) {
+            throw new IllegalStateException("Time slot is held by another client.");
+        }
+
+        long scheduleId;
+        try {
+            // the overlap check is part of the insert; the claim below runs after it found none
+            scheduleId = bookingJdbcRepository.insertBookedSlotIfFree(providerId, serviceId, startAt, endAt)
+                    .orElseThrow(() -> new IllegalStateException("Overlapping appointment exists."));
+        } catch (DuplicateKeyException e) {
+            scheduleId = bookingJdbcRepository.claimAvailableSlot(providerId, serviceId, startAt, endAt)
+                    .orElseThrow(() -> new IllegalStateException("Time slot already booked."));
+        }
+
+        long appointmentId = bookingJdbcRepository.insertAppointment(clientId, providerId, serviceId, scheduleId, startAt);
+        availabilityCache.evictProviderDay(providerId, startAt.toLocalDate());
+        intervalIndex.added(providerId, appointmentId, startAt, endAt);
+        slotHolds.consume(email, providerId, startAt);
+        readYourWrites.recordWrite(email);
+
+        return new AppointmentResponse(
+                appointmentId,
+                serviceId,
+                providerId,
+                clientId,
+                startAt,
+                durationMinutes,
+                "CONFIRMED"
+        );
+    }
+
+    /**
+     * Books every request through {@link #createAppointmentAtomic} in the one transaction of
+     * this call. Rejections are raised before that request writes anything, so they only
+     * fail their own request; any other error propagates and rolls back the whole group.
+     */
+    public List<AtomicBookingResult> createAppointmentsAtomic(List<AtomicBooking> bookings) {
+        List<AtomicBookingResult> results = new ArrayList<>(bookings.size());
+        // the interval index only learns about these after commit
+        IntervalTree booked = new IntervalTree();
+        for (AtomicBooking booking : bookings) {
+            try {
+                if (booking.startAt() == null) {
+                    throw new IllegalArgumentException("startAt is required.");
+                }
+                int durationMinutes = referenceData.service(booking.serviceId())
+                        .orElseThrow(ChangeSetPersister.NotFoundException::new)
+                        .durationMinutes();
+                long start = toKey(booking.startAt());
+                long end = toKey(booking.startAt().plusMinutes(durationMinutes));
+                if (booked.overlaps(start, end)) {
+                    throw new IllegalStateException("Overlapping appointment exists.");
+                }
+                AppointmentResponse response = createAppointmentAtomic(
+                        booking.email(), booking.serviceId(), booking.providerId(), booking.startAt());
+                booked.add(start, end, response.id());
+                results.add(new AtomicBookingResult(response, null));
+            } catch (IllegalStateException | IllegalArgumentException | NoSuchElementException
+                     | ChangeSetPersister.NotFoundException e) {
+                results.add(new AtomicBookingResult(null, e));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Books a series of starts for one service in a single transaction. Every occurrence is
+     * checked against the working-day template, the provider's existing slots and
+     * appointments (read once for the whole span) and the earlier occurrences of the same
+     * batch; the accepted ones are then inserted with batched JDBC statements.
+     * With {@code allOrNothing} nothing is written unless every occurrence is accepted.
+     */
+    public BatchAppointmentResponse createAppointments(
+            String email,
+            Long serviceId,
+            Long providerId,
+            List<LocalDateTime> startTimes,
+            boolean allOrNothing
+    ) throws ChangeSetPersister.NotFoundException {
+        ReferenceDataCache.ServiceRef serviceRef = referenceData.service(serviceId)
+                .orElseThrow(ChangeSetPersister.NotFoundException::new);
+        requireProviderService(serviceRef.providerId(), providerId);
+        long clientId = referenceData.userId(email);
+        int durationMinutes = serviceRef.durationMinutes();
+
+        List<LocalDateTime> starts = startTimes.stream().distinct().sorted().toList();
+        if (starts.isEmpty()) {
+            throw new IllegalArgumentException("At least one start time is required.");
+        }
+        LocalDateTime first = starts.get(0);
+        LocalDateTime last = starts.get(starts.size() - 1);
+
+        Map<LocalDateTime, Boolean> slots = bookingJdbcRepository.findSlotAvailability(providerId, first, last);
+        IntervalTree taken = new IntervalTree();
+        long seq = 0;
+        for (TimeRangeDTO booked : appointmentRepository.findBookedRanges(providerId, first, last.plusMinutes(durationMinutes))) {
+            taken.add(toKey(booked.start()), toKey(booked.end()), seq++);
+        }
+
+        List<TimeRangeDTO> accepted = new ArrayList<>();
+        Map<LocalDateTime, String> errors = new HashMap<>();
+        for (LocalDateTime startAt : starts) {
+            LocalDateTime endAt = startAt.plusMinutes(durationMinutes);
+            try {
+                validateWorkingWindow(providerId, startAt, endAt);
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                errors.put(startAt, e.getMessage());
+                continue;
+            }
+            if (Boolean.FALSE.equals(slots.get(startAt))) {
+                errors.put(startAt, "Time slot already booked.");
+            } else if (slotHolds.isHeldByOther(email, providerId, startAt, endAt)) {
+                errors.put(startAt, "Time slot is held by another client.");
+            } else if (taken.overlaps(toKey(startAt), toKey(endAt))) {
+                errors.put(startAt, "Overlapping appointment exists.");
+            } else {
+                taken.add(toKey(startAt), toKey(endAt), seq++);
+                accepted.add(new TimeRangeDTO(startAt, endAt));
+            }
+        }
+
+        if (allOrNothing && !errors.isEmpty()) {
+            List<BatchItemResult> items = starts.stream()
+                    .map(startAt -> new BatchItemResult(startAt, null,
+                            errors.getOrDefault(startAt, "Not booked, another occurrence was rejected.")))
+                    .toList();
+            return new BatchAppointmentResponse(0, items.size(), items);
+        }
+
+        List<TimeRangeDTO> fresh = accepted.stream().filter(r -> !slots.containsKey(r.start())).toList();
+        Map<LocalDateTime, Long> scheduleIds = new HashMap<>();
+        List<Long> insertedIds = fresh.isEmpty()
+                ? List.of()
+                : bookingJdbcRepository.insertBookedSlots(providerId, serviceId, fresh);
+        for (int i = 0; i < fresh.size(); i++) {
+            scheduleIds.put(fresh.get(i).start(), insertedIds.get(i));
+        }
+        for (TimeRangeDTO range : accepted) {
+            if (slots.containsKey(range.start())) {
+                // a freed slot, rare enough to claim one at a time; ScheduleReaper may have
+                // deleted it since it was read, then it is inserted like a fresh one
+                scheduleIds.put(range.start(), bookingJdbcRepository
+                        .claimAvailableSlot(providerId, serviceId, range.start(), range.end())
+                        .orElseGet(() -> bookingJdbcRepository.insertBookedSlot(providerId, serviceId, range.start(), range.end())));
+            }
+        }
+
+        List<Long> appointmentIds = accepted.isEmpty()
+                ? List.of()
+                : bookingJdbcRepository.insertAppointments(clientId, providerId, serviceId,
+                        accepted.stream().map(r -> scheduleIds.get(r.start())).toList(),
+                        accepted.stream().map(TimeRangeDTO::start).toList());
+
+        Map<LocalDateTime, AppointmentResponse> created = new HashMap<>();
+        for (int i = 0; i < accepted.size(); i++) {
+            TimeRangeDTO range = accepted.get(i);
+            long appointmentId = appointmentIds.get(i);
+            intervalIndex.added(providerId, appointmentId, range.start(), range.end());
+            slotHolds.consume(email, providerId, range.start());
+            readYourWrites.recordWrite(email);
+            created.put(range.start(), new AppointmentResponse(
+                    appointmentId,
+                    serviceId,
+                    providerId,
+                    clientId,
+                    range.start(),
+                    durationMinutes,
+                    "CONFIRMED"
+            ));
+        }
+        accepted.stream()
+                .map(r -> r.start().toLocalDate())
+                .distinct()
+                .forEach(day -> availabilityCache.evictProviderDay(providerId, day));
+
+        List<BatchItemResult> items = starts.stream()
+                .map(startAt -> new BatchItemResult(startAt, created.get(startAt), errors.get(startAt)))
+                .toList();
+        return new BatchAppointmentResponse(created.size(), errors.size(), items);
+    }
+
+    private static long toKey(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private Schedule lockSlot(User provider,
+                              com.example.appointmentsystem.model.Service serviceEntity,
+                              LocalDateTime startAt,
+                              LocalDateTime endAt) {
+        long providerId = provider.getId();
+        Optional<Schedule> lockedOpt = scheduleRepository.lockSlot(providerId, startAt);
+        if (lockedOpt.isPresent()) {
+            return lockedOpt.get();
+        }
+        scheduleRepository.saveAndFlush(newSlot(provider, serviceEntity, startAt, endAt));
+
+        // Lock again to avoid races
+        return scheduleRepository.lockSlot(providerId, startAt)
+                .orElseThrow(() -> new IllegalStateException("Slot creation race, please retry."));
+    }
+
+    private Schedule findSlot(User provider,
+                              com.example.appointmentsystem.model.Service serviceEntity,
+                              LocalDateTime startAt,
+                              LocalDateTime endAt) {
+        return scheduleRepository.findSlot(provider.getId(), startAt)
+                .orElseGet(() -> newSlot(provider, serviceEntity, startAt, endAt));
+    }
+
+    private Schedule newSlot(User provider,
+                             com.example.appointmentsystem.model.Service serviceEntity,
+                             LocalDateTime startAt,
+                             LocalDateTime endAt) {
+        Schedule newSlot = new Schedule();
+        newSlot.setProvider(provider);
+        newSlot.setService(serviceEntity);
+        newSlot.setStartTime(startAt);
+        newSlot.setEndTime(endAt);
+        newSlot.setAvailable(Boolean.TRUE);
+        return newSlot;
+    }
+
+    /**
+     * A service is only booked on its own provider's calendar, with its own duration.
+     */
+    private static void requireProviderService(long serviceProviderId, Long providerId) {
+        if (providerId != null && serviceProviderId != providerId) {
+            throw new IllegalArgumentException("Service does not belong to this provider.");
+        }
+    }
+
     private void validateWorkingWindow(Long providerId,
                                        LocalDateTime startAt,
                                        LocalDateTime endAt) {
@@ -227,12 +657,12 @@ public class AppointmentService {
 
         DayOfWeek dow = startAt.getDayOfWeek();
 
-        WorkingDay workingDay = workingDayRepository
-                .findByProviderIdAndDayOfWeek(providerId, dow)
+        ReferenceDataCache.WorkingHours workingHours = referenceData
+                .workingHours(providerId, dow)
                 .orElseThrow(() -> new IllegalStateException("Provider does not work on this day."));
 
-        LocalTime startAllowed = workingDay.getStartTime();
-        LocalTime endAllowed = workingDay.getEndTime();
+        LocalTime startAllowed = workingHours.start();
+        LocalTime endAllowed = workingHours.end();
 
         LocalTime startLocal = startAt.toLocalTime();
         LocalTime endLocal = endAt.toLocalTime();
@@ -248,7 +678,7 @@ public class AppointmentService {
     }
 
     public void deleteAppointment(Long appointmentId, String actorEmail) {
-        Appointment appt = appointmentRepository.findById(appointmentId)
+        Appointment appt = appointmentRepository.findWithClientAndScheduleById(appointmentId)
                 .orElseThrow(() -> new NoSuchElementException("Appointment not found."));
 
         if (!appt.getClient().getEmail().equals(actorEmail)) {
@@ -259,8 +689,17 @@ public class AppointmentService {
         if (slot != null) {
             slot.setAvailable(true);
             scheduleRepository.save(slot);
+            availabilityCache.evictProviderDay(appt.getProvider().getId(), slot.getStartTime().toLocalDate());
+            intervalIndex.removed(appt.getProvider().getId(), appt.getId(), slot.getStartTime());
         }
 
         appointmentRepository.delete(appt);
+        readYourWrites.recordWrite(actorEmail);
+    }
+
+    public record AtomicBooking(String email, Long serviceId, Long providerId, LocalDateTime startAt) {
+    }
+
+    public record AtomicBookingResult(AppointmentResponse response, Exception error) {
     }
 }
@@ -0,0 +1,141 @@
+package com.example.appointmentsystem.service;
+
+import com.example.appointmentsystem.model.DTOs.AvailabilityResponse;
+import com.example.appointmentsystem.util.TransactionHooks;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Computed availability per (service, day). A provider's day only changes through
+ * booking, cancellation or a service/working-day update, and those paths evict here
+ * once their transaction commits, bumping {@link AvailabilityVersions} as they go.
+ * <p>
+ * Misses load in the caller's transaction, so on the replica unless the caller wrote
+ * recently. A replica may still lag behind a change for the read-your-writes window, so
+ * days of a provider changed within that window are served from such a load but not
+ * stored; otherwise they would be cached, under the new ETag, for the whole TTL.
+ */
+@Component
+public class AvailabilityCache {
+
+    private final Cache<Key, AvailabilityResponse> cache;
+
+    private final Map<Long, Set<Long>> servicesByProvider = new ConcurrentHashMap<>();
+
+    private final AtomicLong epoch = new AtomicLong();
+
+    private final AvailabilityVersions versions;
+
+    private final PrimaryReads primaryReads;
+
+    private final Cache<Long, Boolean> recentlyChanged;
+
+    @Autowired
+    public AvailabilityCache(@Value("${app.availability.cache.max-size:10000}") long maxSize,
+                             @Value("${app.availability.cache.ttl:PT5M}") Duration ttl,
+                             @Value("${app.datasource.replica.read-your-writes:PT5S}") Duration replicaLag,
+                             MeterRegistry meterRegistry,
+                             AvailabilityVersions versions,
+                             PrimaryReads primaryReads) {
+        this.versions = versions;
+        this.primaryReads = primaryReads;
+        this.recentlyChanged = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(replicaLag.isZero() || replicaLag.isNegative() ? Duration.ofMillis(1) : replicaLag)
+                .build();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "availability");
+    }
+
+    public AvailabilityResponse get(long serviceId, LocalDate date, Supplier<AvailabilityResponse> loader) {
+        Key key = new Key(serviceId, date);
+        long before = epoch.get();
+        boolean[] loaded = {false};
+        AvailabilityResponse response = cache.get(key, k -> {
+            loaded[0] = true;
+            AvailabilityResponse computed = loader.get();
+            index(computed);
+            return computed;
+        });
+        if (loaded[0] && (epoch.get() != before || mayLag(response))) {
+            // an eviction ran while we were reading, or the replica may not have that write yet
+            cache.asMap().remove(key, response);
+        }
+        return response;
+    }
+
+    public AvailabilityResponse getIfPresent(long serviceId, LocalDate date) {
+        return cache.getIfPresent(new Key(serviceId, date));
+    }
+
+    /**
+     * Loads several days at once outside {@link #get} and stores them, unless an eviction
+     * ran during the load, in which case they may predate that write and are dropped.
+     */
+    public List<AvailabilityResponse> loadAll(Supplier<List<AvailabilityResponse>> loader) {
+        long loadedAt = epoch.get();
+        List<AvailabilityResponse> responses = loader.get();
+        responses.forEach(response -> {
+            index(response);
+            if (!mayLag(response)) {
+                cache.put(new Key(response.serviceId(), response.date()), response);
+            }
+        });
+        if (epoch.get() != loadedAt) {
+            responses.forEach(response ->
+                    cache.asMap().remove(new Key(response.serviceId(), response.date()), response));
+        }
+        return responses;
+    }
+
+    public void evictProviderDay(long providerId, LocalDate date) {
+        TransactionHooks.afterCommit(() -> {
+            epoch.incrementAndGet();
+            recentlyChanged.put(providerId, Boolean.TRUE);
+            servicesByProvider.getOrDefault(providerId, Set.of())
+                    .forEach(serviceId -> cache.invalidate(new Key(serviceId, date)));
+            // bump only once the old entries are gone, a new ETag must never see a stale body
+            versions.bumpDay(providerId, date);
+        });
+    }
+
+    public void evictProvider(long providerId) {
+        TransactionHooks.afterCommit(() -> {
+            epoch.incrementAndGet();
+            recentlyChanged.put(providerId, Boolean.TRUE);
+            Set<Long> serviceIds = servicesByProvider.getOrDefault(providerId, Set.of());
+            cache.asMap().keySet().removeIf(key -> serviceIds.contains(key.serviceId()));
+            versions.bumpProvider(providerId);
+        });
+    }
+
+    private boolean mayLag(AvailabilityResponse response) {
+        return recentlyChanged.getIfPresent(response.providerId()) != null && primaryReads.fromReplica();
+    }
+
+    private void index(AvailabilityResponse response) {
+        servicesByProvider.computeIfAbsent(response.providerId(), id -> ConcurrentHashMap.newKeySet())
+                .add(response.serviceId());
+    }
+
+    private record Key(long serviceId, LocalDate date) {
+    }
+}
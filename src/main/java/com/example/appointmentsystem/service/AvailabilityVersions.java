@@ -0,0 +1,87 @@
+package com.example.appointmentsystem.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Change counter per provider day, used as the ETag of availability responses.
+ * Every bump takes a fresh value from one sequence, so a version never repeats for a
+ * key; when a day is evicted from the bounded map the floor returned for unknown days
+ * is raised past it, which keeps that guarantee.
+ */
+@Component
+public class AvailabilityVersions {
+
+    private final String instance = Long.toHexString(System.currentTimeMillis());
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final AtomicLong floor = new AtomicLong();
+
+    private final Cache<ProviderDay, Long> dayVersions;
+
+    private final Map<Long, Long> providerVersions = new ConcurrentHashMap<>();
+
+    private final Map<Long, Long> providerByService = new ConcurrentHashMap<>();
+
+    private final long windowMillis;
+
+    @Autowired
+    public AvailabilityVersions(@Value("${app.availability.versions.max-size:100000}") long maxSize,
+                                @Value("${app.availability.cache.ttl:PT5M}") Duration window) {
+        this.dayVersions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .evictionListener((ProviderDay key, Long version, RemovalCause cause) ->
+                        floor.accumulateAndGet(version, Math::max))
+                .build();
+        this.windowMillis = Math.max(1, window.toMillis());
+    }
+
+    /**
+     * Strong ETag for the availability of {@code serviceId} on {@code date}. It also rolls
+     * over once per cache window so writes made by another instance are picked up within
+     * the same bound as the availability cache.
+     */
+    public String etag(long serviceId, LocalDate date, LongSupplier providerLookup) {
+        long providerId = providerOf(serviceId, providerLookup);
+        long window = System.currentTimeMillis() / windowMillis;
+        return "\"" + instance + "-" + Long.toHexString(window) + "-" + version(providerId, date) + "\"";
+    }
+
+    public long version(long providerId, LocalDate date) {
+        Long day = dayVersions.getIfPresent(new ProviderDay(providerId, date));
+        long dayVersion = day != null ? day : floor.get();
+        return Math.max(dayVersion, providerVersions.getOrDefault(providerId, 0L));
+    }
+
+    public void bumpDay(long providerId, LocalDate date) {
+        dayVersions.put(new ProviderDay(providerId, date), sequence.incrementAndGet());
+    }
+
+    public void bumpProvider(long providerId) {
+        providerVersions.put(providerId, sequence.incrementAndGet());
+    }
+
+    private long providerOf(long serviceId, LongSupplier providerLookup) {
+        Long providerId = providerByService.get(serviceId);
+        if (providerId == null) {
+            providerId = providerLookup.getAsLong();
+            providerByService.put(serviceId, providerId);
+        }
+        return providerId;
+    }
+
+    private record ProviderDay(long providerId, LocalDate date) {
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.appointmentsystem.service;
+
+import com.example.appointmentsystem.model.DTOs.AppointmentResponse;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Bookings queued per provider and written by a single writer per provider. The writer
+ * drains up to {@code max-group} requests and books them in one transaction through
+ * {@link AppointmentService#createAppointmentsAtomic}, where a lost slot only fails its
+ * own request. Requests complete through the returned future, so no HTTP thread waits
+ * for the lock or the commit.
+ * <p>
+ * Writes go through {@link AppointmentService#createAppointmentAtomic}, which needs no row
+ * locks. The writer holds {@link BookingService}'s provider lock for the whole group, so
+ * queued bookings still serialize with the synchronous booking, batch and hold paths.
+ * Enabled with {@code app.booking.queue.enabled}.
+ */
+@Service
+public class BookingQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingQueue.class);
+
+    private final AppointmentService appointmentService;
+
+    private final BookingService bookingService;
+
+    private final boolean enabled;
+
+    private final Map<Long, Lane> lanes = new ConcurrentHashMap<>();
+
+    private final ExecutorService writers;
+
+    private final int laneCapacity;
+
+    private final int maxGroup;
+
+    private final DistributionSummary groupSize;
+
+    @Autowired
+    public BookingQueue(AppointmentService appointmentService,
+                        BookingService bookingService,
+                        @Value("${app.booking.queue.enabled:false}") boolean enabled,
+                        @Value("${app.booking.queue.writers:8}") int writers,
+                        @Value("${app.booking.queue.lane-capacity:256}") int laneCapacity,
+                        @Value("${app.booking.queue.max-group:32}") int maxGroup,
+                        MeterRegistry meterRegistry) {
+        this.appointmentService = appointmentService;
+        this.bookingService = bookingService;
+        this.enabled = enabled;
+        AtomicInteger threads = new AtomicInteger();
+        this.writers = Executors.newFixedThreadPool(Math.max(1, writers), r -> {
+            Thread thread = new Thread(r, "booking-writer-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.laneCapacity = laneCapacity;
+        this.maxGroup = Math.max(1, maxGroup);
+        this.groupSize = DistributionSummary.builder("booking.queue.group.size")
+                .description("Bookings committed together by one provider writer")
+                .register(meterRegistry);
+        meterRegistry.gauge("booking.queue.pending", lanes,
+                l -> l.values().stream().mapToInt(lane -> lane.requests.size()).sum());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues a booking for the provider's writer. The future fails with 503 straight away
+     * when the provider's lane is full.
+     */
+    public CompletableFuture<AppointmentResponse> submit(String email, Long serviceId, Long providerId, LocalDateTime startAt) {
+        if (providerId == null) {
+            throw new IllegalArgumentException("providerId is required.");
+        }
+        Request request = new Request(email, serviceId, providerId, startAt, new CompletableFuture<>());
+        Lane lane = lanes.computeIfAbsent(providerId, id -> new Lane(id, laneCapacity));
+        if (!lane.requests.offer(request)) {
+            request.result().completeExceptionally(
+                    new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Provider is busy, please retry."));
+            return request.result();
+        }
+        schedule(lane);
+        return request.result();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writers.shutdown();
+    }
+
+    private void schedule(Lane lane) {
+        if (lane.draining.compareAndSet(false, true)) {
+            writers.execute(() -> drain(lane));
+        }
+    }
+
+    private void drain(Lane lane) {
+        try {
+            List<Request> group = new ArrayList<>(maxGroup);
+            Request next;
+            while (group.size() < maxGroup && (next = lane.requests.poll()) != null) {
+                group.add(next);
+            }
+            if (!group.isEmpty()) {
+                Lock lock = bookingService.providerLock(lane.providerId);
+                lock.lock();
+                try {
+                    write(group);
+                } finally {
+                    lock.unlock();
+                }
+            }
+        } finally {
+            lane.draining.set(false);
+        }
+        // one writer per lane: whoever wins the flag next takes the rest
+        if (!lane.requests.isEmpty()) {
+            schedule(lane);
+        }
+    }
+
+    private void write(List<Request> group) {
+        groupSize.record(group.size());
+        List<AppointmentService.AtomicBookingResult> results;
+        try {
+            results = appointmentService.createAppointmentsAtomic(group.stream()
+                    .map(r -> new AppointmentService.AtomicBooking(r.email(), r.serviceId(), r.providerId(), r.startAt()))
+                    .toList());
+        } catch (RuntimeException e) {
+            // book each request on its own so one cause can't sink the rest
+            log.warn("Group commit of {} bookings failed, retrying one by one", group.size(), e);
+            group.forEach(this::writeAlone);
+            return;
+        }
+        for (int i = 0; i < group.size(); i++) {
+            AppointmentService.AtomicBookingResult result = results.get(i);
+            if (result.error() != null) {
+                group.get(i).result().completeExceptionally(result.error());
+            } else {
+                group.get(i).result().complete(result.response());
+            }
+        }
+    }
+
+    private void writeAlone(Request request) {
+        try {
+            request.result().complete(appointmentService.createAppointmentAtomic(
+                    request.email(), request.serviceId(), request.providerId(), request.startAt()));
+        } catch (Exception e) {
+            request.result().completeExceptionally(e);
+        }
+    }
+
+    private static final class Lane {
+
+        private final long providerId;
+
+        private final Queue<Request> requests;
+
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Lane(long providerId, int capacity) {
+            this.providerId = providerId;
+            this.requests = new LinkedBlockingQueue<>(Math.max(1, capacity));
+        }
+    }
+
+    private record Request(String email,
+                           Long serviceId,
+                           Long providerId,
+                           LocalDateTime startAt,
+                           CompletableFuture<AppointmentResponse> result) {
+    }
+}
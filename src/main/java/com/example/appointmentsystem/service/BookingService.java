@@ -0,0 +1,199 @@
+package com.example.appointmentsystem.service;
+
+import com.example.appointmentsystem.model.DTOs.AppointmentResponse;
+import com.example.appointmentsystem.model.DTOs.BatchAppointmentResponse;
+import com.example.appointmentsystem.model.DTOs.SlotHoldResponse;
+import com.example.appointmentsystem.model.enums.BookingStrategy;
+import com.example.appointmentsystem.util.StripedLock;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.OptimisticLockException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.crossstore.ChangeSetPersister;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Entry point for bookings. Bookings for the same provider are serialized inside the JVM
+ * before their transaction starts, so concurrent requests queue on a cheap in-process
+ * lock instead of on MySQL row locks. The lock is held until the transaction has
+ * committed.
+ *
+ * <p>{@code app.booking.strategy} picks how the slot row itself is claimed: a
+ * {@code PESSIMISTIC_WRITE} lock, or an {@code OPTIMISTIC} version-checked update that is
+ * retried with jittered backoff when another instance got there first, or an
+ * {@code ATOMIC} overlap-guarded insert-or-claim against the unique (provider, start) key
+ * that books in one short transaction of two statements, four when it claims a freed slot.
+ */
+@Service
+public class BookingService {
+
+    private final AppointmentService appointmentService;
+
+    private final SlotHoldService slotHolds;
+
+    private final StripedLock providerLocks;
+
+    private final long lockTimeoutMillis;
+
+    private final Timer lockWait;
+
+    private final BookingStrategy strategy;
+
+    private final int optimisticMaxAttempts;
+
+    private final long optimisticBackoffMillis;
+
+    private final Counter optimisticRetries;
+
+    @Autowired
+    public BookingService(AppointmentService appointmentService,
+                          SlotHoldService slotHolds,
+                          @Value("${app.booking.lock.stripes:64}") int stripes,
+                          @Value("${app.booking.lock.timeout-ms:5000}") long lockTimeoutMillis,
+                          @Value("${app.booking.strategy:PESSIMISTIC}") BookingStrategy strategy,
+                          @Value("${app.booking.optimistic.max-attempts:3}") int optimisticMaxAttempts,
+                          @Value("${app.booking.optimistic.backoff-ms:20}") long optimisticBackoffMillis,
+                          MeterRegistry meterRegistry) {
+        this.appointmentService = appointmentService;
+        this.slotHolds = slotHolds;
+        this.providerLocks = new StripedLock(stripes);
+        this.lockTimeoutMillis = lockTimeoutMillis;
+        this.strategy = strategy;
+        this.optimisticMaxAttempts = Math.max(1, optimisticMaxAttempts);
+        this.optimisticBackoffMillis = optimisticBackoffMillis;
+        this.optimisticRetries = Counter.builder("booking.optimistic.retries")
+                .description("Optimistic booking attempts retried after a version conflict")
+                .register(meterRegistry);
+        this.lockWait = Timer.builder("booking.lock.wait")
+                .description("Time spent waiting for the per-provider booking lock")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    public AppointmentResponse book(String email,
+                                    Long serviceId,
+                                    Long providerId,
+                                    LocalDateTime startAt) throws ChangeSetPersister.NotFoundException {
+        if (providerId == null) {
+            throw new IllegalArgumentException("providerId is required.");
+        }
+        if (strategy == BookingStrategy.OPTIMISTIC) {
+            return bookOptimistically(email, serviceId, providerId, startAt);
+        }
+        Lock lock = providerLocks.get(providerId);
+        acquire(lock);
+        try {
+            if (strategy == BookingStrategy.ATOMIC) {
+                return appointmentService.createAppointmentAtomic(email, serviceId, providerId, startAt);
+            }
+            return appointmentService.createAppointment(email, serviceId, providerId, startAt, BookingStrategy.PESSIMISTIC);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Books a series under the provider lock; see {@link AppointmentService#createAppointments}.
+     */
+    public BatchAppointmentResponse bookBatch(String email,
+                                              Long serviceId,
+                                              Long providerId,
+                                              List<LocalDateTime> startTimes,
+                                              boolean allOrNothing) throws ChangeSetPersister.NotFoundException {
+        if (providerId == null) {
+            throw new IllegalArgumentException("providerId is required.");
+        }
+        Lock lock = providerLocks.get(providerId);
+        acquire(lock);
+        try {
+            return appointmentService.createAppointments(email, serviceId, providerId, startTimes, allOrNothing);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Holds the slot for the caller under the provider lock; see {@link SlotHoldService}.
+     */
+    public SlotHoldResponse hold(String email,
+                                 Long serviceId,
+                                 Long providerId,
+                                 LocalDateTime startAt) throws ChangeSetPersister.NotFoundException {
+        if (providerId == null) {
+            throw new IllegalArgumentException("providerId is required.");
+        }
+        Lock lock = providerLocks.get(providerId);
+        acquire(lock);
+        try {
+            return slotHolds.place(email, serviceId, providerId, startAt);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The lock serializing bookings of {@code providerId} in this instance.
+     */
+    Lock providerLock(long providerId) {
+        return providerLocks.get(providerId);
+    }
+
+    /**
+     * Each attempt takes the provider lock on its own; the backoff runs without it, so the
+     * provider's other bookings are not held up while this one waits to retry.
+     */
+    private AppointmentResponse bookOptimistically(String email,
+                                                   Long serviceId,
+                                                   Long providerId,
+                                                   LocalDateTime startAt) throws ChangeSetPersister.NotFoundException {
+        Lock lock = providerLocks.get(providerId);
+        for (int attempt = 1; ; attempt++) {
+            acquire(lock);
+            try {
+                return appointmentService.createAppointment(email, serviceId, providerId, startAt, BookingStrategy.OPTIMISTIC);
+            } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+                if (attempt >= optimisticMaxAttempts) {
+                    throw new IllegalStateException("Slot is being booked concurrently, please retry.");
+                }
+                optimisticRetries.increment();
+            } finally {
+                lock.unlock();
+            }
+            backoff(attempt);
+        }
+    }
+
+    private void backoff(int attempt) {
+        // full jitter: sleep somewhere in [0, base * 2^(attempt-1)]
+        long cap = optimisticBackoffMillis << Math.min(attempt - 1, 10);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(cap + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to book, please retry.");
+        }
+    }
+
+    private void acquire(Lock lock) {
+        long start = System.nanoTime();
+        try {
+            if (!lock.tryLock(lockTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("Provider is busy, please retry.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to book, please retry.");
+        } finally {
+            lockWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
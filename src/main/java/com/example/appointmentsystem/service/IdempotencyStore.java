@@ -0,0 +1,131 @@
+package com.example.appointmentsystem.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Results of requests sent with an {@code Idempotency-Key}, per caller. The first request
+ * for a key runs; duplicates wait for it and get the same result without running again.
+ * Only successes are kept: when the first request fails its entry is dropped and the
+ * next duplicate runs the action itself.
+ */
+@Component
+public class IdempotencyStore {
+
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private static final Object FAILED = new Object();
+
+    private final Cache<Key, Entry> entries;
+
+    private final long waitTimeoutMillis;
+
+    @Autowired
+    public IdempotencyStore(@Value("${app.idempotency.max-size:100000}") long maxSize,
+                            @Value("${app.idempotency.ttl:PT24H}") Duration ttl,
+                            @Value("${app.idempotency.wait-timeout-ms:10000}") long waitTimeoutMillis,
+                            MeterRegistry meterRegistry) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.waitTimeoutMillis = waitTimeoutMillis;
+        CaffeineCacheMetrics.monitor(meterRegistry, entries, "idempotency");
+    }
+
+    /**
+     * Runs {@code action} once per {@code (scope, key)} and completes with its result.
+     * {@code fingerprint} identifies the request body; reusing a key for a different
+     * request is rejected with 422. Duplicates never block a thread while they wait.
+     */
+    @SuppressWarnings("unchecked")
+    public <T, E extends Exception> CompletableFuture<Outcome<T>> execute(String scope,
+                                                                          String key,
+                                                                          Object fingerprint,
+                                                                          Action<CompletableFuture<T>, E> action) throws E {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        Key entryKey = new Key(scope, key);
+        Entry mine = new Entry(fingerprint, new CompletableFuture<>());
+        Entry existing = entries.asMap().putIfAbsent(entryKey, mine);
+        if (existing == null) {
+            return run(entryKey, mine, action).thenApply(result -> new Outcome<>(result, false));
+        }
+        if (!existing.fingerprint().equals(fingerprint)) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Idempotency-Key was already used for a different request");
+        }
+        return existing.result().copy()
+                .orTimeout(waitTimeoutMillis, TimeUnit.MILLISECONDS)
+                .handle((result, error) -> {
+                    if (error != null) {
+                        throw new ResponseStatusException(HttpStatus.CONFLICT,
+                                "A request with this Idempotency-Key is still in progress");
+                    }
+                    return result;
+                })
+                .thenCompose(result -> {
+                    if (result != FAILED) {
+                        return CompletableFuture.completedFuture(new Outcome<>((T) result, true));
+                    }
+                    // the first attempt failed and was dropped, take over
+                    try {
+                        return execute(scope, key, fingerprint, action);
+                    } catch (Exception e) {
+                        return CompletableFuture.failedFuture(e);
+                    }
+                });
+    }
+
+    private <T, E extends Exception> CompletableFuture<T> run(Key entryKey,
+                                                              Entry mine,
+                                                              Action<CompletableFuture<T>, E> action) throws E {
+        CompletableFuture<T> started;
+        try {
+            started = action.run();
+        } catch (Exception | Error e) {
+            fail(entryKey, mine);
+            throw e;
+        }
+        return started.whenComplete((result, error) -> {
+            if (error != null) {
+                fail(entryKey, mine);
+            } else {
+                mine.result().complete(result);
+            }
+        });
+    }
+
+    private void fail(Key entryKey, Entry mine) {
+        entries.asMap().remove(entryKey, mine);
+        mine.result().complete(FAILED);
+    }
+
+    @FunctionalInterface
+    public interface Action<T, E extends Exception> {
+        T run() throws E;
+    }
+
+    public record Outcome<T>(T result, boolean replayed) {
+    }
+
+    private record Key(String scope, String key) {
+    }
+
+    private record Entry(Object fingerprint, CompletableFuture<Object> result) {
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.appointmentsystem.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+/**
+ * Where loaders that fill shared caches read from. {@link #read} runs a loader on the
+ * primary: inside a read-only transaction, which may be on a lagging replica, the loader
+ * gets its own read-write transaction; anywhere else it already runs on the primary and
+ * is called directly. {@link #fromReplica} tells a cache that reads in the caller's own
+ * transaction whether that read may be behind.
+ */
+@Component
+public class PrimaryReads {
+
+    private final TransactionTemplate primary;
+
+    private final ReadYourWritesTracker readYourWrites;
+
+    private final boolean replicaConfigured;
+
+    @Autowired
+    public PrimaryReads(PlatformTransactionManager transactionManager,
+                        ReadYourWritesTracker readYourWrites,
+                        @Value("${app.datasource.replica.url:}") String replicaUrl) {
+        this.primary = new TransactionTemplate(transactionManager);
+        this.primary.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readYourWrites = readYourWrites;
+        this.replicaConfigured = !replicaUrl.isBlank();
+    }
+
+    public <T> T read(Supplier<T> loader) {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return loader.get();
+        }
+        return primary.execute(status -> loader.get());
+    }
+
+    /**
+     * Whether a read in the current transaction goes to the replica, which is the case
+     * for read-only transactions of callers outside their read-your-writes window.
+     */
+    public boolean fromReplica() {
+        return replicaConfigured
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && !readYourWrites.isCurrentCallerPinned();
+    }
+}
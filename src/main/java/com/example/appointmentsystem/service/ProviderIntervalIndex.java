@@ -0,0 +1,151 @@
+package com.example.appointmentsystem.service;
+
+import com.example.appointmentsystem.model.DTOs.BookedIntervalDTO;
+import com.example.appointmentsystem.repository.AppointmentRepository;
+import com.example.appointmentsystem.util.IntervalTree;
+import com.example.appointmentsystem.util.TransactionHooks;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Booked intervals per provider across all of their services, loaded on first use from
+ * the appointments that end after the load time and kept current by the create and
+ * cancel paths once they commit. Checks that start before the load time, and every check
+ * while the index is disabled, go to {@link AppointmentRepository#existsOverlapping}.
+ * <p>
+ * The index only sees writes made by this instance. That matches the rest of the booking
+ * path, whose slot holds also live in memory, so it is on by default; deployments that
+ * run several booking instances must set {@code app.booking.interval-index.enabled} to
+ * false.
+ * <p>
+ * Loads and fallback checks read from the primary: a snapshot taken from a lagging
+ * replica would miss bookings until it is dropped.
+ */
+@Component
+public class ProviderIntervalIndex {
+
+    private final AppointmentRepository appointmentRepository;
+
+    private final Cache<Long, ProviderIntervals> providers;
+
+    private final AtomicLong epoch = new AtomicLong();
+
+    private final boolean enabled;
+
+    private final TransactionTemplate primary;
+
+    @Autowired
+    public ProviderIntervalIndex(AppointmentRepository appointmentRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${app.booking.interval-index.enabled:true}") boolean enabled,
+                                 @Value("${app.booking.interval-index.max-providers:10000}") long maxProviders,
+                                 @Value("${app.booking.interval-index.idle:PT30M}") Duration idle) {
+        this.appointmentRepository = appointmentRepository;
+        this.enabled = enabled;
+        this.primary = new TransactionTemplate(transactionManager);
+        this.primary.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.providers = Caffeine.newBuilder()
+                .maximumSize(maxProviders)
+                .expireAfterAccess(idle)
+                .build();
+    }
+
+    public boolean overlaps(long providerId, LocalDateTime startAt, LocalDateTime endAt) {
+        if (enabled) {
+            long before = epoch.get();
+            boolean[] loaded = {false};
+            ProviderIntervals intervals = providers.get(providerId, id -> {
+                loaded[0] = true;
+                return onPrimary(() -> load(id));
+            });
+            if (loaded[0] && epoch.get() != before) {
+                // a booking or cancellation committed while we were reading
+                providers.asMap().remove(providerId, intervals);
+            } else if (!startAt.isBefore(intervals.horizon)) {
+                return intervals.overlaps(startAt, endAt);
+            }
+        }
+        return onPrimary(() -> appointmentRepository.existsOverlapping(providerId, startAt, endAt));
+    }
+
+    public void added(long providerId, long appointmentId, LocalDateTime startAt, LocalDateTime endAt) {
+        TransactionHooks.afterCommit(() -> {
+            epoch.incrementAndGet();
+            // waits for an in-flight load; add is idempotent if that load already saw the row
+            providers.asMap().computeIfPresent(providerId, (id, intervals) -> {
+                intervals.add(appointmentId, startAt, endAt);
+                return intervals;
+            });
+        });
+    }
+
+    public void removed(long providerId, long appointmentId, LocalDateTime startAt) {
+        TransactionHooks.afterCommit(() -> {
+            epoch.incrementAndGet();
+            providers.asMap().computeIfPresent(providerId, (id, intervals) -> {
+                intervals.remove(appointmentId, startAt);
+                return intervals;
+            });
+        });
+    }
+
+    /**
+     * Joins the caller's read-write transaction, otherwise opens one of its own.
+     */
+    private <T> T onPrimary(Supplier<T> read) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return read.get();
+        }
+        return primary.execute(status -> read.get());
+    }
+
+    private ProviderIntervals load(long providerId) {
+        LocalDateTime horizon = LocalDateTime.now(AppointmentService.BUSINESS_ZONE);
+        ProviderIntervals intervals = new ProviderIntervals(horizon);
+        for (BookedIntervalDTO booked : appointmentRepository.findBookedIntervalsEndingAfter(providerId, horizon)) {
+            intervals.add(booked.appointmentId(), booked.start(), booked.end());
+        }
+        return intervals;
+    }
+
+    private static long toKey(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static final class ProviderIntervals {
+
+        private final LocalDateTime horizon;
+
+        private final IntervalTree tree = new IntervalTree();
+
+        private ProviderIntervals(LocalDateTime horizon) {
+            this.horizon = horizon;
+        }
+
+        synchronized boolean overlaps(LocalDateTime startAt, LocalDateTime endAt) {
+            return tree.overlaps(toKey(startAt), toKey(endAt));
+        }
+
+        synchronized void add(long appointmentId, LocalDateTime startAt, LocalDateTime endAt) {
+            tree.add(toKey(startAt), toKey(endAt), appointmentId);
+        }
+
+        synchronized void remove(long appointmentId, LocalDateTime startAt) {
+            tree.remove(toKey(startAt), appointmentId);
+        }
+    }
+}
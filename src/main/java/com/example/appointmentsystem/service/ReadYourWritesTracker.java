@@ -0,0 +1,52 @@
+package com.example.appointmentsystem.service;
+
+import com.example.appointmentsystem.util.TransactionHooks;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Callers who just wrote, kept for a short window after their commit. Their reads go to
+ * the primary for that window so they see their own booking before the replica has it.
+ * A zero window turns this off.
+ */
+@Component
+public class ReadYourWritesTracker {
+
+    private final Cache<String, Boolean> recentWriters;
+
+    private final boolean enabled;
+
+    @Autowired
+    public ReadYourWritesTracker(@Value("${app.datasource.replica.read-your-writes:PT5S}") Duration window,
+                                 @Value("${app.datasource.replica.read-your-writes-max-size:100000}") long maxSize) {
+        this.enabled = !window.isZero() && !window.isNegative();
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(enabled ? window : Duration.ofMillis(1))
+                .build();
+    }
+
+    public void recordWrite(String email) {
+        if (enabled && email != null) {
+            TransactionHooks.afterCommit(() -> recentWriters.put(email, Boolean.TRUE));
+        }
+    }
+
+    /**
+     * Whether the authenticated caller on this thread wrote within the window.
+     */
+    public boolean isCurrentCallerPinned() {
+        if (!enabled) {
+            return false;
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && recentWriters.getIfPresent(authentication.getName()) != null;
+    }
+}
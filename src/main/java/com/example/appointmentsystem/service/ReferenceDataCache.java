@@ -0,0 +1,97 @@
+package com.example.appointmentsystem.service;
+
+import com.example.appointmentsystem.model.User;
+import com.example.appointmentsystem.model.WorkingDay;
+import com.example.appointmentsystem.repository.ServiceRepository;
+import com.example.appointmentsystem.repository.UserRepository;
+import com.example.appointmentsystem.repository.WorkingDayRepository;
+import com.example.appointmentsystem.util.TransactionHooks;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Small immutable snapshots of the rows every booking needs: who the caller is, how long
+ * the service takes and when its provider works. Service and working-day updates evict
+ * the affected provider after commit. Misses are loaded through {@link PrimaryReads}, so a
+ * snapshot is never taken from a lagging replica.
+ */
+@Component
+public class ReferenceDataCache {
+
+    private final UserRepository userRepository;
+
+    private final ServiceRepository serviceRepository;
+
+    private final WorkingDayRepository workingDayRepository;
+
+    private final PrimaryReads primaryReads;
+
+    private final Cache<String, Long> userIds;
+
+    private final Cache<Long, ServiceRef> services;
+
+    private final Cache<Long, Map<DayOfWeek, WorkingHours>> workingWeeks;
+
+    @Autowired
+    public ReferenceDataCache(UserRepository userRepository,
+                              ServiceRepository serviceRepository,
+                              WorkingDayRepository workingDayRepository,
+                              PrimaryReads primaryReads,
+                              @Value("${app.reference-cache.max-size:10000}") long maxSize,
+                              @Value("${app.reference-cache.ttl:PT10M}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.serviceRepository = serviceRepository;
+        this.workingDayRepository = workingDayRepository;
+        this.primaryReads = primaryReads;
+        this.userIds = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).build();
+        this.services = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).build();
+        this.workingWeeks = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).build();
+    }
+
+    public long userId(String email) {
+        return userIds.get(email, key -> primaryReads.read(() -> userRepository.findByEmail(key)
+                .map(User::getId)
+                .orElseThrow(() -> new IllegalArgumentException("User not found"))));
+    }
+
+    public Optional<ServiceRef> service(long serviceId) {
+        return Optional.ofNullable(services.get(serviceId, id -> primaryReads.read(() -> serviceRepository.findById(id)
+                .map(s -> new ServiceRef(s.getId(), s.getProvider().getId(), s.getDurationMinutes()))
+                .orElse(null))));
+    }
+
+    public Optional<WorkingHours> workingHours(long providerId, DayOfWeek dayOfWeek) {
+        return Optional.ofNullable(workingWeeks.get(providerId, this::loadWorkingWeek).get(dayOfWeek));
+    }
+
+    public void evictProvider(long providerId) {
+        TransactionHooks.afterCommit(() -> {
+            workingWeeks.invalidate(providerId);
+            services.asMap().values().removeIf(ref -> ref.providerId() == providerId);
+        });
+    }
+
+    private Map<DayOfWeek, WorkingHours> loadWorkingWeek(long providerId) {
+        Map<DayOfWeek, WorkingHours> week = new EnumMap<>(DayOfWeek.class);
+        for (WorkingDay day : primaryReads.read(() -> workingDayRepository.findByProviderId(providerId))) {
+            week.put(day.getDayOfWeek(), new WorkingHours(day.getStartTime(), day.getEndTime()));
+        }
+        return week;
+    }
+
+    public record ServiceRef(long id, long providerId, int durationMinutes) {
+    }
+
+    public record WorkingHours(LocalTime start, LocalTime end) {
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.appointmentsystem.service;
+
+import com.example.appointmentsystem.repository.FreeSlotJdbcRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Deletes past free {@code schedules} rows no appointment refers to, so the
+ * {@code (provider_id, start_time)} index that {@code lockSlot} seeks on only holds live
+ * slots. Future free rows stay, booking claims them again instead of re-inserting. Works in chunks of {@code chunk-size} ids walked in id order; each delete is its
+ * own transaction bounded by {@code timeout}, so a booking never waits long behind it.
+ * Stops after {@code max-per-run} rows and picks up again on the next run.
+ */
+@Component
+public class ScheduleReaper {
+
+    private static final Logger log = LoggerFactory.getLogger(ScheduleReaper.class);
+
+    private final FreeSlotJdbcRepository freeSlots;
+
+    private final TransactionTemplate transactions;
+
+    private final boolean enabled;
+
+    private final int chunkSize;
+
+    private final int maxPerRun;
+
+    private final Counter reclaimed;
+
+    private final Timer chunkTime;
+
+    @Autowired
+    public ScheduleReaper(FreeSlotJdbcRepository freeSlots,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${app.schedules.reaper.enabled:true}") boolean enabled,
+                          @Value("${app.schedules.reaper.chunk-size:200}") int chunkSize,
+                          @Value("${app.schedules.reaper.max-per-run:20000}") int maxPerRun,
+                          @Value("${app.schedules.reaper.timeout:PT5S}") Duration timeout,
+                          MeterRegistry meterRegistry) {
+        this.freeSlots = freeSlots;
+        this.transactions = new TransactionTemplate(transactionManager);
+        this.transactions.setTimeout((int) Math.max(1, timeout.toSeconds()));
+        this.enabled = enabled;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.maxPerRun = Math.max(this.chunkSize, maxPerRun);
+        this.reclaimed = Counter.builder("schedules.reaper.reclaimed")
+                .description("Free, unreferenced schedule rows deleted")
+                .register(meterRegistry);
+        this.chunkTime = Timer.builder("schedules.reaper.chunk")
+                .description("Time spent deleting one chunk of free schedule rows")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.schedules.reaper.interval:PT10M}", initialDelayString = "${app.schedules.reaper.initial-delay:PT2M}")
+    public void reapScheduled() {
+        if (!enabled) {
+            return;
+        }
+        int deleted = reap();
+        if (deleted > 0) {
+            log.info("Reclaimed {} free schedule rows", deleted);
+        }
+    }
+
+    /**
+     * One pass over the free slots that started before now.
+     *
+     * @return the number of rows deleted
+     */
+    public int reap() {
+        int deleted = 0;
+        int scanned = 0;
+        long afterId = 0;
+        LocalDateTime now = LocalDateTime.now(AppointmentService.BUSINESS_ZONE);
+        while (scanned < maxPerRun) {
+            List<Long> ids = freeSlots.findReclaimable(now, afterId, chunkSize);
+            if (ids.isEmpty()) {
+                break;
+            }
+            int count = chunkTime.record(() -> transactions.execute(status -> freeSlots.deleteIfReclaimable(now, ids)));
+            reclaimed.increment(count);
+            deleted += count;
+            scanned += ids.size();
+            afterId = ids.get(ids.size() - 1);
+            if (ids.size() < chunkSize) {
+                break;
+            }
+        }
+        return deleted;
+    }
+}
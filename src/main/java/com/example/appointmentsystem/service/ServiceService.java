@@ -28,12 +28,21 @@ public class ServiceService {
 
     private final WorkingDayRepository workingDayRepository;
 
+    private final AvailabilityCache availabilityCache;
+
+    private final ReferenceDataCache referenceData;
+
+    private final ReadYourWritesTracker readYourWrites;
+
 
     @Autowired
-    public ServiceService(ServiceRepository serviceRepository, UserService userService, WorkingDayRepository workingDayRepository) {
+    public ServiceService(ServiceRepository serviceRepository, UserService userService, WorkingDayRepository workingDayRepository, AvailabilityCache availabilityCache, ReferenceDataCache referenceData, ReadYourWritesTracker readYourWrites) {
         this.serviceRepository = serviceRepository;
         this.userService = userService;
         this.workingDayRepository = workingDayRepository;
+        this.availabilityCache = availabilityCache;
+        this.referenceData = referenceData;
+        this.readYourWrites = readYourWrites;
     }
 
 
@@ -63,10 +72,14 @@ public class ServiceService {
         }).toList();
         workingDayRepository.saveAll(toSave);
         serviceRepository.save(service);
+        availabilityCache.evictProvider(user.getId());
+        referenceData.evictProvider(user.getId());
+        readYourWrites.recordWrite(userEmail);
     }
 
+    @Transactional(readOnly = true)
     public List<ServiceDTO> getAllServices() {
-        List<com.example.appointmentsystem.model.Service> all = serviceRepository.findAll();
+        List<com.example.appointmentsystem.model.Service> all = serviceRepository.findAllWithProvider();
         List<ServiceDTO> dtos = new ArrayList<>();
         for (com.example.appointmentsystem.model.Service service : all) {
             User provider = service.getProvider();
@@ -85,6 +98,7 @@ public class ServiceService {
         return dtos;
     }
 
+    @Transactional(readOnly = true)
     public UpdateServiceDTO getServiceDataByProviderEmail(String email) {
         User provider = userService.getUserByEmail(email);
         com.example.appointmentsystem.model.Service service = provider.getServices().get(0);
@@ -139,12 +153,15 @@ public class ServiceService {
             }
         }
         if (!byDow.isEmpty()) {
-            workingDayRepository.deleteAllInBatch(byDow.values());
+            workingDayRepository.deleteAll(byDow.values());
         }
         if (!toSave.isEmpty()) {
             workingDayRepository.saveAll(toSave);
         }
         serviceRepository.save(service);
+        availabilityCache.evictProvider(provider.getId());
+        referenceData.evictProvider(provider.getId());
+        readYourWrites.recordWrite(provider.getEmail());
     }
 
     private DayOfWeek toDow(Object v) {
@@ -158,6 +175,7 @@ public class ServiceService {
         return DayOfWeek.valueOf(s.toUpperCase(Locale.ROOT));
     }
 
+    @Transactional(readOnly = true)
     public com.example.appointmentsystem.model.Service getById(Long id) {
         return serviceRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("No service found with " + id));
@@ -0,0 +1,232 @@
+package com.example.appointmentsystem.service;
+
+import com.example.appointmentsystem.model.DTOs.SlotHoldResponse;
+import com.example.appointmentsystem.model.DTOs.TimeRangeDTO;
+import com.example.appointmentsystem.util.HashedTimingWheel;
+import com.example.appointmentsystem.util.TransactionHooks;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.crossstore.ChangeSetPersister;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Short-lived, in-memory reservations of a provider's slot for one client. Held slots are
+ * left out of availability and can only be booked by their holder. Expiry is driven by a
+ * {@link HashedTimingWheel} advanced on a fixed tick, which releases everything that came
+ * due in one pass and evicts each affected provider day once.
+ * <p>
+ * {@link #place} runs under the provider's booking lock in {@link BookingService}, the
+ * same lock booking paths check holds under. Holding a start the client already holds
+ * replaces that hold with a fresh one.
+ */
+@Service
+public class SlotHoldService {
+
+    private final ReferenceDataCache referenceData;
+
+    private final ProviderIntervalIndex intervalIndex;
+
+    private final AvailabilityCache availabilityCache;
+
+    private final Duration ttl;
+
+    private final int maxPerClient;
+
+    private final HashedTimingWheel<Hold> wheel;
+
+    private final Map<UUID, Hold> holdsById = new ConcurrentHashMap<>();
+
+    private final Map<Long, NavigableMap<LocalDateTime, Hold>> holdsByProvider = new ConcurrentHashMap<>();
+
+    private final Map<UUID, HashedTimingWheel.Timeout<Hold>> timeouts = new ConcurrentHashMap<>();
+
+    private final Map<String, Integer> holdsPerClient = new ConcurrentHashMap<>();
+
+    private final Counter expiredHolds;
+
+    @Autowired
+    public SlotHoldService(ReferenceDataCache referenceData,
+                           ProviderIntervalIndex intervalIndex,
+                           AvailabilityCache availabilityCache,
+                           @Value("${app.holds.ttl:PT5M}") Duration ttl,
+                           @Value("${app.holds.max-per-client:3}") int maxPerClient,
+                           @Value("${app.holds.tick-ms:1000}") long tickMillis,
+                           MeterRegistry meterRegistry) {
+        this.referenceData = referenceData;
+        this.intervalIndex = intervalIndex;
+        this.availabilityCache = availabilityCache;
+        this.ttl = ttl;
+        this.maxPerClient = maxPerClient;
+        this.wheel = new HashedTimingWheel<>(tickMillis, 512, System.currentTimeMillis());
+        this.expiredHolds = Counter.builder("slot.holds.expired")
+                .description("Slot holds released because their TTL ran out")
+                .register(meterRegistry);
+        Gauge.builder("slot.holds.active", holdsById, Map::size)
+                .description("Slot holds currently in place")
+                .register(meterRegistry);
+    }
+
+    public SlotHoldResponse place(String email, Long serviceId, Long providerId, LocalDateTime startAt)
+            throws ChangeSetPersister.NotFoundException {
+        if (startAt == null) {
+            throw new IllegalArgumentException("startAt is required.");
+        }
+        ReferenceDataCache.ServiceRef serviceRef = referenceData.service(serviceId)
+                .orElseThrow(ChangeSetPersister.NotFoundException::new);
+        if (serviceRef.providerId() != providerId) {
+            throw new IllegalArgumentException("Service does not belong to this provider.");
+        }
+        LocalDateTime endAt = startAt.plusMinutes(serviceRef.durationMinutes());
+        if (!startAt.isAfter(LocalDateTime.now(AppointmentService.BUSINESS_ZONE))) {
+            throw new IllegalArgumentException("Only future slots can be held.");
+        }
+        ReferenceDataCache.WorkingHours workingHours = referenceData.workingHours(providerId, startAt.getDayOfWeek())
+                .orElseThrow(() -> new IllegalStateException("Provider does not work on this day."));
+        if (startAt.toLocalTime().isBefore(workingHours.start())
+                || !endAt.toLocalDate().equals(startAt.toLocalDate())
+                || endAt.toLocalTime().isAfter(workingHours.end())) {
+            throw new IllegalStateException("Outside working hours.");
+        }
+        Hold previous = heldBy(email, providerId, startAt);
+        int held = holdsPerClient.getOrDefault(email, 0) - (previous != null ? 1 : 0);
+        if (held >= maxPerClient) {
+            throw new IllegalStateException("Too many slots held, book or release one first.");
+        }
+        if (isHeldByOther(email, providerId, startAt, endAt)) {
+            throw new IllegalStateException("Time slot is held by another client.");
+        }
+        if (intervalIndex.overlaps(providerId, startAt, endAt)) {
+            throw new IllegalStateException("Time slot already booked.");
+        }
+
+        if (previous != null) {
+            remove(previous);
+        }
+        Instant expiresAt = Instant.now().plus(ttl);
+        Hold hold = new Hold(UUID.randomUUID(), email, serviceId, providerId, startAt, endAt, expiresAt);
+        holdsById.put(hold.id(), hold);
+        holdsPerClient.merge(email, 1, Integer::sum);
+        holdsByProvider.computeIfAbsent(providerId, id -> new ConcurrentSkipListMap<>()).put(startAt, hold);
+        timeouts.put(hold.id(), wheel.schedule(hold, expiresAt.toEpochMilli()));
+        availabilityCache.evictProviderDay(providerId, startAt.toLocalDate());
+
+        return new SlotHoldResponse(hold.id(), serviceId, providerId, startAt, endAt, expiresAt);
+    }
+
+    public boolean isHeldByOther(String email, long providerId, LocalDateTime startAt, LocalDateTime endAt) {
+        return overlapping(providerId, startAt, endAt).stream()
+                .anyMatch(hold -> !hold.email().equals(email));
+    }
+
+    public List<TimeRangeDTO> heldRanges(long providerId, LocalDateTime from, LocalDateTime to) {
+        return overlapping(providerId, from, to).stream()
+                .map(hold -> new TimeRangeDTO(hold.startAt(), hold.endAt()))
+                .toList();
+    }
+
+    /**
+     * Drops the caller's hold on the slot starting at {@code startAt}, if any, once the
+     * current transaction commits. Used when the slot gets booked, whose own eviction
+     * already covers the day.
+     */
+    public void consume(String email, long providerId, LocalDateTime startAt) {
+        TransactionHooks.afterCommit(() -> {
+            Hold hold = heldBy(email, providerId, startAt);
+            if (hold != null) {
+                remove(hold);
+            }
+        });
+    }
+
+    public void release(UUID holdId, String email) {
+        Hold hold = holdsById.get(holdId);
+        if (hold == null) {
+            throw new NoSuchElementException("Hold not found.");
+        }
+        if (!hold.email().equals(email)) {
+            throw new SecurityException("You are not allowed to release this hold.");
+        }
+        if (remove(hold)) {
+            availabilityCache.evictProviderDay(hold.providerId(), hold.startAt().toLocalDate());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.holds.tick-ms:1000}")
+    public void expireDue() {
+        expireDue(System.currentTimeMillis());
+    }
+
+    void expireDue(long nowMillis) {
+        Set<ProviderDay> touched = new HashSet<>();
+        for (Hold hold : wheel.advance(nowMillis)) {
+            if (remove(hold)) {
+                touched.add(new ProviderDay(hold.providerId(), hold.startAt().toLocalDate()));
+                expiredHolds.increment();
+            }
+        }
+        touched.forEach(day -> availabilityCache.evictProviderDay(day.providerId(), day.date()));
+    }
+
+    private Hold heldBy(String email, long providerId, LocalDateTime startAt) {
+        NavigableMap<LocalDateTime, Hold> holds = holdsByProvider.get(providerId);
+        Hold hold = holds == null ? null : holds.get(startAt);
+        return hold != null && hold.email().equals(email) ? hold : null;
+    }
+
+    private List<Hold> overlapping(long providerId, LocalDateTime startAt, LocalDateTime endAt) {
+        NavigableMap<LocalDateTime, Hold> holds = holdsByProvider.get(providerId);
+        if (holds == null) {
+            return List.of();
+        }
+        // a hold never spans more than a working day, so nothing earlier can reach startAt
+        return holds.subMap(startAt.minusDays(1), false, endAt, false).values().stream()
+                .filter(hold -> hold.endAt().isAfter(startAt))
+                .toList();
+    }
+
+    private boolean remove(Hold hold) {
+        if (!holdsById.remove(hold.id(), hold)) {
+            return false;
+        }
+        holdsPerClient.computeIfPresent(hold.email(), (email, held) -> held > 1 ? held - 1 : null);
+        HashedTimingWheel.Timeout<Hold> timeout = timeouts.remove(hold.id());
+        if (timeout != null) {
+            timeout.cancel();
+        }
+        NavigableMap<LocalDateTime, Hold> holds = holdsByProvider.get(hold.providerId());
+        if (holds != null) {
+            holds.remove(hold.startAt(), hold);
+        }
+        return true;
+    }
+
+    private record Hold(UUID id,
+                        String email,
+                        long serviceId,
+                        long providerId,
+                        LocalDateTime startAt,
+                        LocalDateTime endAt,
+                        Instant expiresAt) {
+    }
+
+    private record ProviderDay(long providerId, LocalDate date) {
+    }
+}
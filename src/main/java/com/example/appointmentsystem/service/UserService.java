@@ -10,6 +10,7 @@ import com.example.appointmentsystem.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -21,10 +22,13 @@ public class UserService {
 
     private final PasswordEncoder passwordEncoder;
 
+    private final ReadYourWritesTracker readYourWrites;
+
     @Autowired
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, ReadYourWritesTracker readYourWrites) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.readYourWrites = readYourWrites;
     }
 
 
@@ -38,17 +42,21 @@ public class UserService {
         user.setRole(Role.CLIENT);
 
         userRepository.save(user);
+        readYourWrites.recordWrite(user.getEmail());
     }
 
+    @Transactional(readOnly = true)
     public boolean isEmailExist(String email) {
         return userRepository.findByEmail(email).isPresent();
     }
 
+    @Transactional(readOnly = true)
     public String getUserRoles(String email) {
         User user = getUserByEmail(email);
         return user.getRole().name();
     }
 
+    @Transactional(readOnly = true)
     public User getUserByEmail(String email) {
         return userRepository.findByEmail(email)
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
@@ -64,8 +72,10 @@ public class UserService {
         user.setRole(Role.PROVIDER);
 
         userRepository.save(user);
+        readYourWrites.recordWrite(user.getEmail());
     }
 
+    @Transactional(readOnly = true)
     public List<ProvidersNamesDTOs> getAllByRole(Role role) {
         List<User> users = userRepository.getAllByRole(role);
         List<ProvidersNamesDTOs> dtos = new ArrayList<>();
@@ -76,11 +86,13 @@ public class UserService {
         return dtos;
     }
 
+    @Transactional(readOnly = true)
     public User getUserById(Long providerId) {
         return userRepository.findById(providerId)
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
     }
 
+    @Transactional(readOnly = true)
     public ProfileDTO getProfileData(String email) {
         User user = getUserByEmail(email);
         return new ProfileDTO(user.getFirstName(), user.getLastName(), user.getEmail());
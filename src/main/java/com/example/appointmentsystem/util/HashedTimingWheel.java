@@ -0,0 +1,111 @@
+package com.example.appointmentsystem.util;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Deadlines hashed into a ring of buckets, one per tick. Scheduling and cancelling are
+ * O(1); {@link #advance} only visits the buckets of the ticks that passed and returns
+ * everything that came due in one batch. Deadlines are rounded up to the next tick and
+ * may lap the ring any number of times. Thread-safe.
+ */
+public final class HashedTimingWheel<T> {
+
+    private final long tickMillis;
+
+    private final long originMillis;
+
+    private final List<Timeout<T>>[] buckets;
+
+    private final int mask;
+
+    private long processedTick;
+
+    @SuppressWarnings("unchecked")
+    public HashedTimingWheel(long tickMillis, int minBuckets, long originMillis) {
+        if (tickMillis <= 0 || minBuckets <= 0) {
+            throw new IllegalArgumentException("tickMillis and minBuckets must be positive.");
+        }
+        int size = Integer.highestOneBit(Math.max(1, minBuckets - 1)) << 1;
+        this.tickMillis = tickMillis;
+        this.originMillis = originMillis;
+        this.buckets = new List[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new ArrayList<>();
+        }
+        this.mask = size - 1;
+    }
+
+    public synchronized Timeout<T> schedule(T item, long deadlineMillis) {
+        long tick = Math.max(Math.ceilDiv(deadlineMillis - originMillis, tickMillis), processedTick + 1);
+        Timeout<T> timeout = new Timeout<>(this, item, tick);
+        buckets[(int) (tick & mask)].add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Removes and returns every item whose deadline is at or before {@code nowMillis} and
+     * was not cancelled.
+     */
+    public synchronized List<T> advance(long nowMillis) {
+        long targetTick = Math.floorDiv(nowMillis - originMillis, tickMillis);
+        if (targetTick <= processedTick) {
+            return List.of();
+        }
+        List<T> expired = new ArrayList<>();
+        // past one full lap every bucket has been visited once, no need to go round again
+        long ticks = Math.min(targetTick - processedTick, buckets.length);
+        for (long tick = targetTick - ticks + 1; tick <= targetTick; tick++) {
+            Iterator<Timeout<T>> it = buckets[(int) (tick & mask)].iterator();
+            while (it.hasNext()) {
+                Timeout<T> timeout = it.next();
+                if (timeout.cancelled) {
+                    it.remove();
+                } else if (timeout.deadlineTick <= targetTick) {
+                    it.remove();
+                    timeout.expired = true;
+                    expired.add(timeout.item);
+                }
+            }
+        }
+        processedTick = targetTick;
+        return expired;
+    }
+
+    public static final class Timeout<T> {
+
+        private final Object wheel;
+
+        private final T item;
+
+        private final long deadlineTick;
+
+        private boolean cancelled;
+
+        private boolean expired;
+
+        private Timeout(Object wheel, T item, long deadlineTick) {
+            this.wheel = wheel;
+            this.item = item;
+            this.deadlineTick = deadlineTick;
+        }
+
+        public T item() {
+            return item;
+        }
+
+        /**
+         * @return false if the item already came due
+         */
+        public boolean cancel() {
+            synchronized (wheel) {
+                if (expired) {
+                    return false;
+                }
+                cancelled = true;
+                return true;
+            }
+        }
+    }
+}
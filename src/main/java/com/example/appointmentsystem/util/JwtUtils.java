@@ -1,6 +1,5 @@
 package com.example.appointmentsystem.util;
 
-import java.security.Key;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
@@ -9,10 +8,12 @@ import java.util.Objects;
 import javax.crypto.SecretKey;
 
 import com.example.appointmentsystem.model.enums.Role;
+import com.example.appointmentsystem.security.JwtPrincipal;
 import org.springframework.stereotype.Component;
 import jakarta.servlet.http.HttpServletRequest;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
@@ -21,7 +22,10 @@ import io.jsonwebtoken.security.Keys;
 @Component
 public class JwtUtils {
     private final long EXPIRATION_TIME = 3600000;
-    private final Key SECRET_KEY = Keys.hmacShaKeyFor("MySuperSecureLongSecretKey123456!".getBytes());
+    private final SecretKey SECRET_KEY = Keys.hmacShaKeyFor("MySuperSecureLongSecretKey123456!".getBytes());
+
+    // immutable and thread-safe, so one parser serves every request
+    private final JwtParser parser = Jwts.parser().verifyWith(SECRET_KEY).build();
 
     public String generateToken(String username, String role) {
 
@@ -34,22 +38,25 @@ public class JwtUtils {
                 .signWith(SECRET_KEY).compact();
     }
 
+    /**
+     * Verifies the token once and returns its claims.
+     *
+     * @throws io.jsonwebtoken.ExpiredJwtException if the token has expired
+     * @throws io.jsonwebtoken.JwtException if the token is malformed or its signature does not match
+     */
+    public JwtPrincipal parse(String token) {
+        Claims claims = extractAllClaims(token);
+        Date expiration = claims.getExpiration();
+        return new JwtPrincipal(claims.getSubject(), (String) claims.get("role"),
+                expiration == null ? null : expiration.toInstant());
+    }
+
     public String extractEmail(String token) {
-        return Jwts
-                .parser()
-                .setSigningKey(SECRET_KEY)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getSubject();
+        return extractAllClaims(token).getSubject();
     }
 
     public Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .setSigningKey(SECRET_KEY)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parser.parseSignedClaims(token).getPayload();
     }
 
     public String extractRole(String token) {
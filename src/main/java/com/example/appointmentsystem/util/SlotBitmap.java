@@ -0,0 +1,137 @@
+package com.example.appointmentsystem.util;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One provider day at minute granularity: a set bit means the minute is inside the
+ * working window and not taken by a booking. Free slots are found with word-level
+ * scans instead of comparing every candidate against every booked range.
+ */
+public final class SlotBitmap {
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private static final int WORDS = (MINUTES_PER_DAY + 63) >>> 6;
+
+    private final long[] words = new long[WORDS];
+
+    private SlotBitmap() {
+    }
+
+    public static SlotBitmap forWindow(LocalTime start, LocalTime end) {
+        SlotBitmap bitmap = new SlotBitmap();
+        bitmap.set(floorMinute(start), floorMinute(end));
+        return bitmap;
+    }
+
+    /**
+     * Marks the part of {@code [start, end)} that falls on {@code day} as taken.
+     * Partial minutes are rounded outwards so a booking never leaves a sliver free.
+     */
+    public void block(LocalDate day, LocalDateTime start, LocalDateTime end) {
+        LocalDateTime dayStart = day.atStartOfDay();
+        LocalDateTime dayEnd = day.plusDays(1).atStartOfDay();
+        if (!start.isBefore(dayEnd) || !end.isAfter(dayStart)) {
+            return;
+        }
+        int from = start.isBefore(dayStart) ? 0 : floorMinute(start.toLocalTime());
+        int to = end.isBefore(dayEnd) ? ceilMinute(end.toLocalTime()) : MINUTES_PER_DAY;
+        clear(from, to);
+    }
+
+    /**
+     * Back-to-back candidates of {@code durationMinutes} starting at {@code windowStart}
+     * whose whole span is still free and ends no later than {@code windowEnd}.
+     */
+    public List<LocalTime> freeSlots(LocalTime windowStart, LocalTime windowEnd, int durationMinutes) {
+        if (durationMinutes <= 0) {
+            throw new IllegalArgumentException("durationMinutes must be positive.");
+        }
+        int first = floorMinute(windowStart);
+        int last = floorMinute(windowEnd) - durationMinutes;
+        List<LocalTime> slots = new ArrayList<>();
+        int start = first;
+        while (start <= last) {
+            int end = start + durationMinutes;
+            int blockedAt = nextClearBit(start, end);
+            if (blockedAt >= end) {
+                slots.add(LocalTime.of(start / 60, start % 60));
+                start = end;
+            } else {
+                // every candidate starting at or before blockedAt overlaps it, jump past it
+                int steps = (blockedAt - first) / durationMinutes + 1;
+                start = first + steps * durationMinutes;
+            }
+        }
+        return slots;
+    }
+
+    private void set(int from, int to) {
+        if (from >= to) {
+            return;
+        }
+        int firstWord = from >>> 6;
+        int lastWord = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+        if (firstWord == lastWord) {
+            words[firstWord] |= firstMask & lastMask;
+            return;
+        }
+        words[firstWord] |= firstMask;
+        for (int i = firstWord + 1; i < lastWord; i++) {
+            words[i] = -1L;
+        }
+        words[lastWord] |= lastMask;
+    }
+
+    private void clear(int from, int to) {
+        if (from >= to) {
+            return;
+        }
+        int firstWord = from >>> 6;
+        int lastWord = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+        if (firstWord == lastWord) {
+            words[firstWord] &= ~(firstMask & lastMask);
+            return;
+        }
+        words[firstWord] &= ~firstMask;
+        for (int i = firstWord + 1; i < lastWord; i++) {
+            words[i] = 0L;
+        }
+        words[lastWord] &= ~lastMask;
+    }
+
+    /**
+     * Index of the first clear bit in {@code [from, limit)}, or {@code limit} if all are set.
+     */
+    private int nextClearBit(int from, int limit) {
+        int i = from >>> 6;
+        long word = ~words[i] & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                return Math.min((i << 6) + Long.numberOfTrailingZeros(word), limit);
+            }
+            i++;
+            if (i >= WORDS || (i << 6) >= limit) {
+                return limit;
+            }
+            word = ~words[i];
+        }
+    }
+
+    private static int floorMinute(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    private static int ceilMinute(LocalTime time) {
+        int minute = floorMinute(time);
+        return (time.getSecond() > 0 || time.getNano() > 0) ? minute + 1 : minute;
+    }
+}
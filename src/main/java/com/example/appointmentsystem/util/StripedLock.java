@@ -0,0 +1,40 @@
+package com.example.appointmentsystem.util;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed pool of fair locks addressed by a long key. Equal keys always share a lock,
+ * different keys only collide when they hash to the same stripe.
+ */
+public final class StripedLock {
+
+    private final ReentrantLock[] stripes;
+
+    private final int mask;
+
+    public StripedLock(int minStripes) {
+        if (minStripes <= 0) {
+            throw new IllegalArgumentException("minStripes must be positive.");
+        }
+        int size = minStripes == 1 ? 1 : Integer.highestOneBit((minStripes - 1) << 1);
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock(true);
+        }
+        this.mask = size - 1;
+    }
+
+    public Lock get(long key) {
+        return stripes[spread(key) & mask];
+    }
+
+    public int size() {
+        return stripes.length;
+    }
+
+    private static int spread(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.appointmentsystem.config;
+
+import com.example.appointmentsystem.model.DTOs.AvailabilityResponse;
+import com.example.appointmentsystem.service.AvailabilityCache;
+import com.example.appointmentsystem.service.AvailabilityVersions;
+import com.example.appointmentsystem.service.PrimaryReads;
+import com.example.appointmentsystem.service.ReadYourWritesTracker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Two in-memory databases that each know their own name stand in for primary and replica.
+ */
+class ReadWriteRoutingDataSourceTest {
+
+    private ReadYourWritesTracker readYourWrites;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionTemplate readOnly;
+
+    private TransactionTemplate readWrite;
+
+    private AvailabilityCache availabilityCache;
+
+    @BeforeEach
+    void setUp() {
+        readYourWrites = new ReadYourWritesTracker(Duration.ofMinutes(1), 100);
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(
+                database("primary"), database("replica"), readYourWrites);
+        routing.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+        availabilityCache = new AvailabilityCache(100, Duration.ofMinutes(5), Duration.ofMinutes(1), new SimpleMeterRegistry(),
+                new AvailabilityVersions(100, Duration.ofMinutes(5)),
+                new PrimaryReads(transactionManager, readYourWrites, "jdbc:h2:mem:replica"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplica() {
+        assertEquals("replica", readOnly.execute(status -> servedBy()));
+    }
+
+    @Test
+    void writesAndNonTransactionalWorkGoToThePrimary() {
+        assertEquals("primary", readWrite.execute(status -> servedBy()));
+        assertEquals("primary", servedBy());
+    }
+
+    @Test
+    void aRecentWriterReadsFromThePrimaryOthersFromTheReplica() {
+        authenticate("writer@example.com");
+        readWrite.executeWithoutResult(status -> readYourWrites.recordWrite("writer@example.com"));
+        assertEquals("primary", readOnly.execute(status -> servedBy()));
+
+        authenticate("someone-else@example.com");
+        assertEquals("replica", readOnly.execute(status -> servedBy()));
+    }
+
+    @Test
+    void aRolledBackWriteDoesNotPin() {
+        authenticate("writer@example.com");
+        readWrite.executeWithoutResult(status -> {
+            readYourWrites.recordWrite("writer@example.com");
+            status.setRollbackOnly();
+        });
+        assertEquals("replica", readOnly.execute(status -> servedBy()));
+    }
+
+    @Test
+    void availabilityMissesOfOtherCallersAreLoadedFromTheReplicaAndCached() {
+        LocalDate day = LocalDate.of(2025, 6, 2);
+        authenticate("someone-else@example.com");
+
+        AvailabilityResponse loaded = readOnly.execute(status -> availabilityCache.get(1, day, () -> freeSlots(day)));
+
+        assertEquals(List.of("replica", "09:00", "10:00"), loaded.slots());
+        assertEquals(loaded, availabilityCache.getIfPresent(1, day));
+    }
+
+    @Test
+    void availabilityIsNotCachedFromALaggingReplica() {
+        LocalDate day = LocalDate.of(2025, 6, 2);
+        authenticate("writer@example.com");
+        readWrite.executeWithoutResult(status -> {
+            jdbcTemplate.update("INSERT INTO booked VALUES ('09:00')");
+            readYourWrites.recordWrite("writer@example.com");
+            availabilityCache.evictProviderDay(10, day);
+        });
+
+        // an unpinned reader right after the booking, the replica has not caught up yet
+        authenticate("someone-else@example.com");
+        AvailabilityResponse stale = readOnly.execute(status -> availabilityCache.get(1, day, () -> freeSlots(day)));
+        List<AvailabilityResponse> range = readOnly.execute(status ->
+                availabilityCache.loadAll(() -> List.of(freeSlots(day.plusDays(1)))));
+
+        assertEquals(List.of("replica", "09:00", "10:00"), stale.slots());
+        assertNull(availabilityCache.getIfPresent(1, day));
+        assertNull(availabilityCache.getIfPresent(1, day.plusDays(1)));
+
+        // the writer reads their own booking from the primary, and that may be cached
+        authenticate("writer@example.com");
+        AvailabilityResponse fresh = readOnly.execute(status -> availabilityCache.get(1, day, () -> freeSlots(day)));
+
+        assertEquals(List.of("primary", "10:00"), fresh.slots());
+        assertEquals(fresh, availabilityCache.getIfPresent(1, day));
+    }
+
+    private AvailabilityResponse freeSlots(LocalDate day) {
+        List<String> booked = jdbcTemplate.queryForList("SELECT start_time FROM booked", String.class);
+        List<String> free = new ArrayList<>(List.of(servedBy()));
+        List.of("09:00", "10:00").stream().filter(slot -> !booked.contains(slot)).forEach(free::add);
+        return new AvailabilityResponse(1, 10, day, "Europe/Sofia", 60, free);
+    }
+
+    private String servedBy() {
+        return jdbcTemplate.queryForObject("SELECT name FROM served_by", String.class);
+    }
+
+    private static void authenticate(String email) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(email, null, List.of()));
+    }
+
+    private static DataSource database(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE served_by (name VARCHAR(16))");
+        jdbc.update("INSERT INTO served_by VALUES (?)", name);
+        jdbc.execute("CREATE TABLE booked (start_time VARCHAR(5))");
+        return dataSource;
+    }
+}
@@ -0,0 +1,341 @@
+package com.example.appointmentsystem.controller;
+
+import com.example.appointmentsystem.model.Service;
+import com.example.appointmentsystem.model.User;
+import com.example.appointmentsystem.model.enums.Role;
+import com.example.appointmentsystem.service.AppointmentService;
+import com.example.appointmentsystem.service.BookingFixtures;
+import com.example.appointmentsystem.util.JwtUtils;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+/**
+ * Pins the number of SQL statements each endpoint issues once its reference data is
+ * warm, so a lazy association touched in a loop or a lost fetch plan fails the build.
+ * Each endpoint is called once to warm up and measured on a comparable second call.
+ * {@link SqlStatementCounter} counts at the connection, so plain JDBC writes count too.
+ * <p>
+ * MockMvc is built on the shared test context rather than through
+ * {@code @AutoConfigureMockMvc}: a second context would recreate the H2 schema under the
+ * JVM-wide second-level cache and leave it holding rows from the first.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class EndpointStatementCountTest {
+
+    private static final String PASSWORD = "secret-password";
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JwtUtils jwt;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private BookingFixtures fixtures;
+
+    private MockMvc mvc;
+
+    private User provider;
+
+    private User client;
+
+    private Service service;
+
+    private LocalDate day;
+
+    @BeforeEach
+    void setUp() {
+        mvc = MockMvcBuilders.webAppContextSetup(context).apply(springSecurity()).build();
+        provider = fixtures.provider();
+        client = fixtures.user(Role.CLIENT, passwordEncoder.encode(PASSWORD));
+        service = fixtures.haircutService(provider);
+        fixtures.openAllWeek(provider);
+        day = LocalDate.now().plusDays(10);
+    }
+
+    @Test
+    void serviceTypes() throws Exception {
+        assertStatements(0, () -> get("/api/service-type"));
+    }
+
+    @Test
+    void allServices() throws Exception {
+        assertStatements(1, () -> get("/api/service/all").header("Authorization", bearer(client)));
+    }
+
+    @Test
+    void providerServices() throws Exception {
+        assertStatements(1, () -> get("/api/provider/services").header("Authorization", bearer(provider)));
+    }
+
+    @Test
+    void updateService() throws Exception {
+        assertStatements(1, () -> put("/api/provider/service/" + service.getId())
+                .header("Authorization", bearer(provider))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json(Map.of("id", service.getId(), "serviceType", "HAIRCUT", "name", "Cut",
+                        "description", "Cut", "price", 25.0, "durationMinutes", 30,
+                        "providerEmail", provider.getEmail(),
+                        "workingDays", List.of(Map.of("dayOfWeek", "MONDAY", "startTime", "09:00", "endTime", "17:00"))))));
+    }
+
+    @Test
+    void registerService() throws Exception {
+        assertStatements(2, () -> post("/api/register/service")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json(Map.of("serviceType", "HAIRCUT", "name", "Cut", "description", "Cut", "price", 20.0,
+                        "durationMinutes", 30, "providerEmail", fixtures.provider().getEmail(),
+                        "workingDays", List.of(Map.of("dayOfWeek", "MONDAY", "startTime", "09:00", "endTime", "17:00"))))));
+    }
+
+    @Test
+    void registerClient() throws Exception {
+        assertStatements(2, () -> post("/api/register/client")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json(registration())));
+    }
+
+    @Test
+    void registerProvider() throws Exception {
+        assertStatements(2, () -> post("/api/register/provider")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json(registration())));
+    }
+
+    @Test
+    void login() throws Exception {
+        assertStatements(0, () -> post("/api/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json(Map.of("email", client.getEmail(), "password", PASSWORD))));
+    }
+
+    @Test
+    void allProviders() throws Exception {
+        assertStatements(1, () -> get("/api/all-providers").header("Authorization", bearer(client)));
+    }
+
+    @Test
+    void profile() throws Exception {
+        assertStatements(0, () -> get("/api/user/profile").header("Authorization", bearer(client)));
+    }
+
+    @Test
+    void availableSlotsForDay() throws Exception {
+        LocalDate[] next = {day};
+        assertStatements(2, () -> {
+            next[0] = next[0].plusDays(1);
+            return get("/api/appointments/available-slots")
+                    .header("Authorization", bearer(client))
+                    .param("serviceId", String.valueOf(service.getId()))
+                    .param("date", next[0].toString());
+        });
+    }
+
+    @Test
+    void availableSlotsForRange() throws Exception {
+        LocalDate[] next = {day};
+        assertStatements(1, () -> {
+            next[0] = next[0].plusDays(7);
+            return get("/api/appointments/available-slots/range")
+                    .header("Authorization", bearer(client))
+                    .param("serviceId", String.valueOf(service.getId()))
+                    .param("from", next[0].toString())
+                    .param("to", next[0].plusDays(6).toString());
+        });
+    }
+
+    @Test
+    void book() throws Exception {
+        LocalDateTime[] next = {day.atTime(9, 0)};
+        assertStatements(5, () -> {
+            next[0] = next[0].plusHours(1);
+            return post("/api/appointment")
+                    .header("Authorization", bearer(client))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(json(Map.of("serviceId", service.getId(), "providerId", provider.getId(),
+                            "startAt", next[0].toString())));
+        });
+    }
+
+    /**
+     * The {@code ATOMIC} strategy is not the configured one, so it is measured below the
+     * controller: a guarded slot insert and the appointment insert.
+     */
+    @Test
+    void bookAtomic() throws Exception {
+        LocalDateTime[] next = {day.atTime(9, 0)};
+        Callable<?> booking = () -> {
+            next[0] = next[0].plusHours(1);
+            return appointmentService.createAppointmentAtomic(client.getEmail(), service.getId(), provider.getId(), next[0]);
+        };
+        booking.call();
+        SqlStatementCounter.reset();
+        booking.call();
+        assertEquals(2, SqlStatementCounter.count());
+    }
+
+    @Test
+    void bookBatch() throws Exception {
+        LocalDateTime[] next = {day.atTime(9, 0)};
+        // existing slots of the range, then the slot and appointment batches
+        assertStatements(4, () -> {
+            next[0] = next[0].plusDays(1);
+            return post("/api/appointments/batch")
+                    .header("Authorization", bearer(client))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(json(Map.of("serviceId", service.getId(), "providerId", provider.getId(),
+                            "startTimes", List.of(next[0].toString(), next[0].plusHours(2).toString()))));
+        });
+    }
+
+    @Test
+    void holdAndRelease() throws Exception {
+        LocalDateTime[] next = {day.atTime(9, 0)};
+        assertStatements(0, () -> {
+            next[0] = next[0].plusHours(1);
+            return post("/api/appointments/holds")
+                    .header("Authorization", bearer(client))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(json(Map.of("serviceId", service.getId(), "providerId", provider.getId(),
+                            "startAt", next[0].toString())));
+        });
+        String holdId = body(perform(post("/api/appointments/holds")
+                .header("Authorization", bearer(client))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json(Map.of("serviceId", service.getId(), "providerId", provider.getId(),
+                        "startAt", day.atTime(15, 0).toString()))))).get("holdId").asText();
+        assertEquals(0, statementsFor(delete("/api/appointments/holds/" + holdId)
+                .header("Authorization", bearer(client))));
+    }
+
+    @Test
+    void clientList() throws Exception {
+        bookSome(3);
+        assertStatements(1, () -> get("/api/appointments/all").header("Authorization", bearer(client)));
+    }
+
+    @Test
+    void providerList() throws Exception {
+        bookSome(3);
+        assertStatements(1, () -> get("/api/provider/appointments/all").header("Authorization", bearer(provider)));
+    }
+
+    @Test
+    void clientPage() throws Exception {
+        bookSome(3);
+        assertStatements(1, () -> get("/api/appointments/page").header("Authorization", bearer(client)).param("limit", "2"));
+    }
+
+    @Test
+    void providerPage() throws Exception {
+        bookSome(3);
+        assertStatements(1, () -> get("/api/provider/appointments/page").header("Authorization", bearer(provider)).param("limit", "2"));
+    }
+
+    @Test
+    void providerExport() throws Exception {
+        bookSome(3);
+        assertStatements(1, () -> get("/api/provider/appointments/export").header("Authorization", bearer(provider)).param("format", "csv"));
+    }
+
+    @Test
+    void cancel() throws Exception {
+        List<Long> ids = bookSome(2);
+        int[] next = {0};
+        assertStatements(3, () -> delete("/api/appointment/" + ids.get(next[0]++)).header("Authorization", bearer(client)));
+    }
+
+    private List<Long> bookSome(int count) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(body(perform(post("/api/appointment")
+                    .header("Authorization", bearer(client))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(json(Map.of("serviceId", service.getId(), "providerId", provider.getId(),
+                            "startAt", day.atTime(9, 0).plusHours(i).toString()))))).get("id").asLong());
+        }
+        return ids;
+    }
+
+    private void assertStatements(long expected, RequestFactory request) throws Exception {
+        perform(request.create());
+        assertEquals(expected, statementsFor(request.create()));
+    }
+
+    private long statementsFor(MockHttpServletRequestBuilder request) throws Exception {
+        SqlStatementCounter.reset();
+        perform(request);
+        return SqlStatementCounter.count();
+    }
+
+    private MvcResult perform(MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult result = mvc.perform(request).andReturn();
+        if (result.getRequest().isAsyncStarted()) {
+            result = mvc.perform(asyncDispatch(result)).andReturn();
+        }
+        int status = result.getResponse().getStatus();
+        assertTrue(status >= 200 && status < 300, "status " + status + ": " + result.getResponse().getContentAsString());
+        return result;
+    }
+
+    private JsonNode body(MvcResult result) throws Exception {
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+
+    private String json(Object value) throws Exception {
+        return objectMapper.writeValueAsString(value);
+    }
+
+    private String bearer(User user) {
+        return "Bearer " + jwt.generateToken(user.getEmail(), user.getRole().name());
+    }
+
+    private static Map<String, String> registration() {
+        return Map.of("firstName", "New", "lastName", "User", "email", UUID.randomUUID() + "@example.com",
+                "phoneNumber", "0000", "password", PASSWORD);
+    }
+
+    @FunctionalInterface
+    private interface RequestFactory {
+        MockHttpServletRequestBuilder create() throws Exception;
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.appointmentsystem.security;
+
+import com.example.appointmentsystem.util.JwtUtils;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.crypto.SecretKey;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the filter, which verifies the token at most once with a shared parser, with
+ * the path it replaced: a new parser per call and five verifications per request (email,
+ * validity check twice, role, and the controller's email). The filter is measured with
+ * and without {@link VerifiedTokenCache}. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class JwtAuthenticationFilterBenchmark {
+
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 100_000;
+
+    // same key as JwtUtils, for the legacy path
+    private static final SecretKey KEY = Keys.hmacShaKeyFor("MySuperSecureLongSecretKey123456!".getBytes());
+
+    private final JwtUtils jwtUtils = new JwtUtils();
+
+    private final JwtAuthenticationFilter uncached =
+            new JwtAuthenticationFilter(jwtUtils, new VerifiedTokenCache(jwtUtils, 0, new SimpleMeterRegistry()));
+
+    private final JwtAuthenticationFilter cached =
+            new JwtAuthenticationFilter(jwtUtils, new VerifiedTokenCache(jwtUtils, 1_000, new SimpleMeterRegistry()));
+
+    @Test
+    void singleVerificationVersusLegacyPath() throws Exception {
+        String token = jwtUtils.generateToken("client@example.com", "CLIENT");
+
+        assertEquals("client@example.com", legacy(token));
+        assertEquals("client@example.com", filtered(uncached, token));
+        assertEquals("client@example.com", filtered(cached, token));
+
+        long legacyNanos = measure(() -> legacy(token));
+        long filterNanos = measure(() -> filtered(uncached, token));
+        long cachedNanos = measure(() -> filtered(cached, token));
+
+        System.out.printf("jwt per request: legacy %d ns/op, single parse %d ns/op (%.1fx), cached %d ns/op (%.1fx)%n",
+                legacyNanos, filterNanos, (double) legacyNanos / filterNanos,
+                cachedNanos, (double) legacyNanos / cachedNanos);
+    }
+
+    private static String filtered(JwtAuthenticationFilter filter, String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/appointments/all");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return ((JwtPrincipal) SecurityContextHolder.getContext().getAuthentication().getPrincipal()).email();
+    }
+
+    private static String legacy(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/appointments/all");
+        request.addHeader("Authorization", "Bearer " + token);
+        String bearer = request.getHeader("Authorization").substring(7);
+        String email = parse(bearer).getSubject();
+        boolean valid = parse(bearer).getSubject().equals(email) && !parse(bearer).getExpiration().before(new Date());
+        String role = (String) parse(bearer).get("role");
+        if (!valid || role == null) {
+            throw new IllegalStateException();
+        }
+        return parse(bearer).getSubject();
+    }
+
+    private static Claims parse(String token) {
+        return Jwts.parser().verifyWith(KEY).build().parseSignedClaims(token).getPayload();
+    }
+
+    private static long measure(ThrowingOp op) throws Exception {
+        for (int i = 0; i < WARMUP; i++) {
+            op.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            op.run();
+        }
+        return (System.nanoTime() - start) / ITERATIONS;
+    }
+
+    @FunctionalInterface
+    private interface ThrowingOp {
+        Object run() throws Exception;
+    }
+}
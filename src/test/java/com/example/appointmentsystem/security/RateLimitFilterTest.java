@@ -0,0 +1,75 @@
+package com.example.appointmentsystem.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RateLimitFilterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final RateLimitFilter filter = new RateLimitFilter(
+            new TokenBucketRateLimiter(100, Duration.ofMinutes(10), registry, () -> 0L),
+            new MockEnvironment()
+                    .withProperty("app.rate-limit.booking.capacity", "2")
+                    .withProperty("app.rate-limit.booking.per-second", "0.5"),
+            registry);
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void rejectsPastBudgetWithRetryAfter() throws Exception {
+        signIn("client@example.com");
+
+        assertEquals(200, book().getStatus());
+        assertEquals(200, book().getStatus());
+        MockHttpServletResponse rejected = book();
+
+        assertEquals(429, rejected.getStatus());
+        assertEquals("2", rejected.getHeader("Retry-After"));
+        assertEquals(1, registry.get("rate.limit.rejected").tag("policy", "booking").counter().count());
+    }
+
+    @Test
+    void callersHaveTheirOwnBuckets() throws Exception {
+        signIn("client@example.com");
+        book();
+        book();
+        assertEquals(429, book().getStatus());
+
+        signIn("other@example.com");
+        assertEquals(200, book().getStatus());
+
+        SecurityContextHolder.clearContext();
+        assertEquals(200, book().getStatus());
+    }
+
+    private MockHttpServletResponse book() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/appointment");
+        request.setServletPath("/api/appointment");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static void signIn(String email) {
+        JwtPrincipal principal = new JwtPrincipal(email, "CLIENT", Instant.now().plusSeconds(3600));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+    }
+}
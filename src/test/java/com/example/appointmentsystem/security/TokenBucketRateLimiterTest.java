@@ -0,0 +1,68 @@
+package com.example.appointmentsystem.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TokenBucketRateLimiterTest {
+
+    private static final TokenBucketRateLimiter.Budget BUDGET = new TokenBucketRateLimiter.Budget(3, 1);
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private final TokenBucketRateLimiter limiter =
+            new TokenBucketRateLimiter(100, Duration.ofMinutes(1), new SimpleMeterRegistry(), nanos::get);
+
+    @Test
+    void burstUpToCapacityThenWaitsOneInterval() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("booking", "client@example.com", BUDGET));
+        }
+        assertEquals(TimeUnit.SECONDS.toNanos(1), limiter.tryAcquire("booking", "client@example.com", BUDGET));
+
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(400));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(600), limiter.tryAcquire("booking", "client@example.com", BUDGET));
+    }
+
+    @Test
+    void refillsAtRateButNotPastCapacity() {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("booking", "client@example.com", BUDGET);
+        }
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertEquals(0, limiter.tryAcquire("booking", "client@example.com", BUDGET));
+        assertEquals(TimeUnit.SECONDS.toNanos(1), limiter.tryAcquire("booking", "client@example.com", BUDGET));
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("booking", "client@example.com", BUDGET));
+        }
+        assertEquals(TimeUnit.SECONDS.toNanos(1), limiter.tryAcquire("booking", "client@example.com", BUDGET));
+    }
+
+    @Test
+    void bucketsAreSeparatePerKeyAndPolicy() {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("booking", "client@example.com", BUDGET);
+        }
+        assertEquals(0, limiter.tryAcquire("booking", "other@example.com", BUDGET));
+        assertEquals(0, limiter.tryAcquire("default", "client@example.com", BUDGET));
+    }
+
+    @Test
+    void idleBucketsAreEvicted() {
+        limiter.tryAcquire("booking", "client@example.com", BUDGET);
+        limiter.tryAcquire("booking", "other@example.com", BUDGET);
+        assertEquals(2, limiter.size());
+
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(2));
+        limiter.cleanUp();
+
+        assertEquals(0, limiter.size());
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.appointmentsystem.security;
+
+import com.example.appointmentsystem.util.JwtUtils;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class VerifiedTokenCacheTest {
+
+    private final TestClock clock = new TestClock();
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void repeatTokenIsVerifiedOnce() {
+        CountingJwtUtils jwt = new CountingJwtUtils(clock, Duration.ofHours(1));
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwt, 100, registry, clock::nanos, clock);
+        String token = jwt.generateToken("client@example.com", "CLIENT");
+
+        assertEquals("client@example.com", cache.verify(token).email());
+        assertEquals("client@example.com", cache.verify(token).email());
+        assertEquals("CLIENT", cache.verify(token).role());
+
+        assertEquals(1, jwt.parses.get());
+        assertEquals(2, registry.get("cache.gets").tag("cache", "jwt.verified").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void entryDropsOutAtTokenExpiry() {
+        CountingJwtUtils jwt = new CountingJwtUtils(clock, Duration.ofSeconds(30));
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwt, 100, registry, clock::nanos, clock);
+        String token = jwt.generateToken("client@example.com", "CLIENT");
+
+        cache.verify(token);
+        clock.advance(Duration.ofSeconds(29));
+        cache.verify(token);
+        assertEquals(1, jwt.parses.get());
+
+        clock.advance(Duration.ofSeconds(2));
+        cache.verify(token);
+        assertEquals(2, jwt.parses.get());
+    }
+
+    @Test
+    void expiredEntryIsNotServedBeforeTheCacheDropsIt() {
+        CountingJwtUtils jwt = new CountingJwtUtils(clock, Duration.ofSeconds(30));
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwt, 100, registry, () -> 0L, clock);
+        String token = jwt.generateToken("client@example.com", "CLIENT");
+
+        cache.verify(token);
+        clock.advance(Duration.ofSeconds(31));
+        cache.verify(token);
+
+        assertEquals(2, jwt.parses.get());
+    }
+
+    @Test
+    void invalidTokenIsNotCached() {
+        CountingJwtUtils jwt = new CountingJwtUtils(clock, Duration.ofHours(1));
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwt, 100, registry, clock::nanos, clock);
+
+        assertThrows(JwtException.class, () -> cache.verify("not.a.token"));
+        assertThrows(JwtException.class, () -> cache.verify("not.a.token"));
+        assertEquals(2, jwt.parses.get());
+    }
+
+    /**
+     * Real verification, with the reported expiry moved to {@code lifetime} after the test clock.
+     */
+    private static final class CountingJwtUtils extends JwtUtils {
+
+        private final AtomicInteger parses = new AtomicInteger();
+
+        private final Clock clock;
+
+        private final Duration lifetime;
+
+        private CountingJwtUtils(Clock clock, Duration lifetime) {
+            this.clock = clock;
+            this.lifetime = lifetime;
+        }
+
+        @Override
+        public JwtPrincipal parse(String token) {
+            parses.incrementAndGet();
+            JwtPrincipal principal = super.parse(token);
+            return new JwtPrincipal(principal.email(), principal.role(), clock.instant().plus(lifetime));
+        }
+    }
+
+    /**
+     * Wall clock and cache ticker in one, moved only by {@link #advance}.
+     */
+    private static final class TestClock extends Clock {
+
+        private final Instant start = Instant.parse("2030-01-01T00:00:00Z");
+
+        private final AtomicLong nanos = new AtomicLong();
+
+        void advance(Duration duration) {
+            nanos.addAndGet(duration.toNanos());
+        }
+
+        long nanos() {
+            return nanos.get();
+        }
+
+        @Override
+        public Instant instant() {
+            return start.plusNanos(nanos.get());
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
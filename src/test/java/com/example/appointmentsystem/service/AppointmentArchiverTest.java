@@ -0,0 +1,109 @@
+package com.example.appointmentsystem.service;
+
+import com.example.appointmentsystem.model.DTOs.AllAppointmentsResponse;
+import com.example.appointmentsystem.model.DTOs.AppointmentPage;
+import com.example.appointmentsystem.model.Service;
+import com.example.appointmentsystem.model.User;
+import com.example.appointmentsystem.util.PageCursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the archiver with a cutoff in the future, so the test's bookings count as past.
+ * The test profile uses chunks of two rows.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AppointmentArchiverTest {
+
+    @Autowired
+    private AppointmentArchiver archiver;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BookingFixtures fixtures;
+
+    private User provider;
+
+    private User client;
+
+    private Service service;
+
+    @BeforeEach
+    void setUp() {
+        provider = fixtures.provider();
+        client = fixtures.client();
+        service = fixtures.haircutService(provider);
+        fixtures.openAllWeek(provider);
+    }
+
+    @Test
+    void movesPastAppointmentsAndTheirSlotsInChunks() throws Exception {
+        LocalDate day = LocalDate.now().plusDays(300);
+        book(day, 5);
+        book(day.plusDays(1), 1);
+
+        int moved = archiver.archiveBefore(day.plusDays(1).atStartOfDay());
+
+        assertTrue(moved >= 5);
+        assertEquals(List.of(day.plusDays(1).atTime(9, 0)), starts(appointmentService.geAllAppointmentsForUser(client.getEmail())));
+        assertEquals(6, appointmentService.geAllAppointmentsForUser(client.getEmail(), true).size());
+        assertEquals(0, countFor("schedules", day));
+        assertEquals(5, countFor("schedules_archive", day));
+    }
+
+    @Test
+    void historyPagesWalkArchiveAndHotRowsInOrder() throws Exception {
+        LocalDate day = LocalDate.now().plusDays(320);
+        book(day, 3);
+        book(day.plusDays(1), 2);
+        archiver.archiveBefore(day.plusDays(1).atStartOfDay());
+
+        List<LocalDateTime> seen = new ArrayList<>();
+        PageCursor cursor = null;
+        do {
+            AppointmentPage page = appointmentService.getAppointmentsPage(provider.getEmail(), true, cursor,
+                    day.atStartOfDay(), day.plusDays(2).atStartOfDay(), 2, true);
+            seen.addAll(starts(page.items()));
+            cursor = page.nextCursor() == null ? null : PageCursor.decode(page.nextCursor());
+        } while (cursor != null);
+
+        assertEquals(5, seen.size());
+        assertEquals(seen.stream().sorted().toList(), seen);
+        assertEquals(2, appointmentService.getAppointmentsPage(provider.getEmail(), true, null,
+                day.atStartOfDay(), day.plusDays(2).atStartOfDay(), 10, false).items().size());
+    }
+
+    private long countFor(String table, LocalDate day) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE provider_id = ? AND start_time >= ? AND start_time < ?",
+                Long.class, provider.getId(), day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+    }
+
+    private void book(LocalDate day, int count) throws Exception {
+        for (int i = 0; i < count; i++) {
+            appointmentService.createAppointment(client.getEmail(), service.getId(), provider.getId(),
+                    day.atTime(9, 0).plusMinutes(30L * i));
+        }
+    }
+
+    private static List<LocalDateTime> starts(List<AllAppointmentsResponse> rows) {
+        return rows.stream().map(AllAppointmentsResponse::startDateTime).toList();
+    }
+}
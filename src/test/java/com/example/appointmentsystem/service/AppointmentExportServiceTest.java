@@ -0,0 +1,91 @@
+package com.example.appointmentsystem.service;
+
+import com.example.appointmentsystem.model.DTOs.AllAppointmentsResponse;
+import com.example.appointmentsystem.model.Service;
+import com.example.appointmentsystem.model.User;
+import com.example.appointmentsystem.model.enums.ExportFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AppointmentExportServiceTest {
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private AppointmentExportService exportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private BookingFixtures fixtures;
+
+    private User provider;
+
+    private User client;
+
+    private Service service;
+
+    @BeforeEach
+    void setUp() {
+        provider = fixtures.provider();
+        client = fixtures.client();
+        service = fixtures.haircutService(provider);
+        fixtures.openAllWeek(provider);
+    }
+
+    @Test
+    void csvHasAHeaderAndOneLinePerAppointmentInStartOrder() throws Exception {
+        LocalDate day = LocalDate.now().plusDays(60);
+        book(day.plusDays(1), 2);
+        book(day, 3);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = exportService.exportForProvider(provider.getId(), ExportFormat.CSV, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(5, rows);
+        assertEquals(6, lines.size());
+        assertTrue(lines.get(0).startsWith("id,service,client"));
+        assertTrue(lines.get(1).endsWith(day.atTime(9, 30).toString()));
+        assertTrue(lines.get(5).contains(",Test CLIENT,30,"));
+    }
+
+    @Test
+    void ndjsonRowsReadBackAsTheListRows() throws Exception {
+        LocalDate day = LocalDate.now().plusDays(70);
+        book(day, 4);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportForProvider(provider.getId(), ExportFormat.NDJSON, out);
+
+        List<AllAppointmentsResponse> exported = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).lines().toList()) {
+            exported.add(objectMapper.readValue(line, AllAppointmentsResponse.class));
+        }
+        assertEquals(appointmentService.geAllAppointmentByProvider(provider.getEmail()), exported);
+    }
+
+    private void book(LocalDate day, int count) throws Exception {
+        for (int i = 0; i < count; i++) {
+            appointmentService.createAppointment(client.getEmail(), service.getId(), provider.getId(),
+                    day.atTime(9, 0).plusMinutes(30L * i));
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.appointmentsystem.service;
+
+import com.example.appointmentsystem.model.DTOs.AllAppointmentsResponse;
+import com.example.appointmentsystem.model.DTOs.AppointmentPage;
+import com.example.appointmentsystem.model.Service;
+import com.example.appointmentsystem.model.User;
+import com.example.appointmentsystem.util.PageCursor;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The appointment lists must cost the same number of statements however many rows they return.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AppointmentListQueryTest {
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private BookingFixtures fixtures;
+
+    private User provider;
+
+    private User client;
+
+    private Service service;
+
+    @BeforeEach
+    void setUp() {
+        provider = fixtures.provider();
+        client = fixtures.client();
+        service = fixtures.haircutService(provider);
+        fixtures.openAllWeek(provider);
+    }
+
+    @Test
+    void clientListIsOneStatementRegardlessOfSize() throws Exception {
+        assertConstantStatements(appointmentService::geAllAppointmentsForUser, client.getEmail());
+    }
+
+    @Test
+    void providerListIsOneStatementRegardlessOfSize() throws Exception {
+        assertConstantStatements(appointmentService::geAllAppointmentByProvider, provider.getEmail());
+    }
+
+    @Test
+    void rowsCarryTheCounterpartNameInStartOrder() throws Exception {
+        LocalDateTime later = LocalDate.now().plusDays(30).atTime(11, 0);
+        LocalDateTime earlier = later.minusHours(1);
+        appointmentService.createAppointment(client.getEmail(), service.getId(), provider.getId(), later);
+        appointmentService.createAppointment(client.getEmail(), service.getId(), provider.getId(), earlier);
+
+        List<AllAppointmentsResponse> forClient = appointmentService.geAllAppointmentsForUser(client.getEmail());
+        List<AllAppointmentsResponse> forProvider = appointmentService.geAllAppointmentByProvider(provider.getEmail());
+
+        assertEquals(List.of(earlier, later), forClient.stream().map(AllAppointmentsResponse::startDateTime).toList());
+        assertEquals("Test PROVIDER", forClient.get(0).userNames());
+        assertEquals("Test CLIENT", forProvider.get(0).userNames());
+        assertEquals(earlier.plusMinutes(30), forProvider.get(0).endDateTime());
+    }
+
+    @Test
+    void pagesWalkTheHistoryInStartOrderWithoutGapsOrRepeats() throws Exception {
+        LocalDate day = LocalDate.now().plusDays(40);
+        book(day, 5);
+        book(day.plusDays(1), 2);
+
+        List<LocalDateTime> seen = new ArrayList<>();
+        PageCursor cursor = null;
+        int pages = 0;
+        do {
+            AppointmentPage page = appointmentService.getAppointmentsPage(client.getEmail(), false, cursor,
+                    day.atStartOfDay(), day.plusDays(2).atStartOfDay(), 3, false);
+            page.items().forEach(item -> seen.add(item.startDateTime()));
+            cursor = page.nextCursor() == null ? null : PageCursor.decode(page.nextCursor());
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(7, seen.size());
+        assertEquals(seen.stream().sorted().toList(), seen);
+    }
+
+    @Test
+    void pageKeepsToTheRequestedRange() throws Exception {
+        LocalDate day = LocalDate.now().plusDays(50);
+        book(day, 2);
+        book(day.plusDays(1), 3);
+        book(day.plusDays(2), 1);
+
+        AppointmentPage page = appointmentService.getAppointmentsPage(provider.getEmail(), true, null,
+                day.plusDays(1).atStartOfDay(), day.plusDays(2).atStartOfDay(), 10, false);
+
+        assertEquals(3, page.items().size());
+        assertNull(page.nextCursor());
+        assertTrue(page.items().stream().allMatch(item -> item.startDateTime().toLocalDate().equals(day.plusDays(1))));
+    }
+
+    private void assertConstantStatements(Function<String, List<AllAppointmentsResponse>> list, String email) throws Exception {
+        LocalDate day = LocalDate.now().plusDays(20);
+        book(day, 1);
+        long withOne = statementsFor(() -> assertEquals(1, list.apply(email).size()));
+
+        book(day.plusDays(1), 10);
+        long withEleven = statementsFor(() -> assertEquals(11, list.apply(email).size()));
+
+        assertEquals(1, withOne);
+        assertEquals(withOne, withEleven);
+    }
+
+    private void book(LocalDate day, int count) throws Exception {
+        for (int i = 0; i < count; i++) {
+            appointmentService.createAppointment(client.getEmail(), service.getId(), provider.getId(),
+                    day.atTime(9, 0).plusMinutes(30L * i));
+        }
+    }
+
+    private long statementsFor(Runnable action) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
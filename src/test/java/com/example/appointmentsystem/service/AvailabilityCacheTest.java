@@ -0,0 +1,99 @@
+package com.example.appointmentsystem.service;
+
+import com.example.appointmentsystem.model.DTOs.AvailabilityResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class AvailabilityCacheTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 6, 2);
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final AvailabilityVersions versions = new AvailabilityVersions(100, Duration.ofMinutes(5));
+
+    private final AvailabilityCache cache = new AvailabilityCache(100, Duration.ofMinutes(5), Duration.ofSeconds(5),
+            registry, versions, new PrimaryReads(new DataSourceTransactionManager(), new ReadYourWritesTracker(Duration.ZERO, 1), ""));
+
+    @Test
+    void secondReadIsServedFromMemory() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1, DAY, () -> response(1, 10, DAY, loads));
+        cache.get(1, DAY, () -> response(1, 10, DAY, loads));
+
+        assertEquals(1, loads.get());
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", "availability").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void bookingEvictsEveryServiceOfTheProviderOnThatDayOnly() {
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(1, DAY, () -> response(1, 10, DAY, loads));
+        cache.get(2, DAY, () -> response(2, 10, DAY, loads));
+        cache.get(1, DAY.plusDays(1), () -> response(1, 10, DAY.plusDays(1), loads));
+        cache.get(3, DAY, () -> response(3, 20, DAY, loads));
+
+        cache.evictProviderDay(10, DAY);
+
+        assertNull(cache.getIfPresent(1, DAY));
+        assertNull(cache.getIfPresent(2, DAY));
+        assertNotNull(cache.getIfPresent(1, DAY.plusDays(1)));
+        assertNotNull(cache.getIfPresent(3, DAY));
+        assertNotEquals(0, versions.version(10, DAY));
+        assertEquals(0, versions.version(10, DAY.plusDays(1)));
+    }
+
+    @Test
+    void serviceUpdateEvictsAllDaysOfTheProvider() {
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(1, DAY, () -> response(1, 10, DAY, loads));
+        cache.get(1, DAY.plusDays(1), () -> response(1, 10, DAY.plusDays(1), loads));
+
+        cache.evictProvider(10);
+
+        assertNull(cache.getIfPresent(1, DAY));
+        assertNull(cache.getIfPresent(1, DAY.plusDays(1)));
+    }
+
+    @Test
+    void loadOverlappingAnEvictionIsNotKept() {
+        AtomicInteger loads = new AtomicInteger();
+
+        AvailabilityResponse returned = cache.get(1, DAY, () -> {
+            cache.evictProviderDay(10, DAY);
+            return response(1, 10, DAY, loads);
+        });
+
+        assertNotNull(returned);
+        assertNull(cache.getIfPresent(1, DAY));
+    }
+
+    @Test
+    void rangeLoadedBeforeAnEvictionIsDropped() {
+        List<AvailabilityResponse> returned = cache.loadAll(() -> {
+            cache.evictProviderDay(10, DAY);
+            return List.of(response(1, 10, DAY, new AtomicInteger()));
+        });
+
+        assertEquals(1, returned.size());
+        assertNull(cache.getIfPresent(1, DAY));
+    }
+
+    private static AvailabilityResponse response(long serviceId, long providerId, LocalDate date, AtomicInteger loads) {
+        loads.incrementAndGet();
+        return new AvailabilityResponse(serviceId, providerId, date, "Europe/Sofia", 30, List.of("09:00"));
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.appointmentsystem.service;
+
+import com.example.appointmentsystem.model.Appointment;
+import com.example.appointmentsystem.model.DTOs.AvailabilityResponse;
+import com.example.appointmentsystem.model.Schedule;
+import com.example.appointmentsystem.model.Service;
+import com.example.appointmentsystem.model.User;
+import com.example.appointmentsystem.repository.AppointmentRepository;
+import com.example.appointmentsystem.repository.ScheduleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AvailabilityRangeTest {
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private ScheduleRepository scheduleRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private BookingFixtures fixtures;
+
+    private User provider;
+
+    private User client;
+
+    private Service service;
+
+    @BeforeEach
+    void setUp() {
+        provider = fixtures.provider();
+        client = fixtures.client();
+        service = fixtures.haircutService(provider);
+        fixtures.openAllWeek(provider, LocalTime.MIDNIGHT, LocalTime.of(23, 30));
+    }
+
+    @Test
+    void bookingAcrossMidnightBlocksBothDaysOfTheRange() throws Exception {
+        LocalDate first = LocalDate.now().plusDays(30);
+        book(first.atTime(23, 0), first.plusDays(1).atTime(1, 0));
+        appointmentService.createAppointment(client.getEmail(), service.getId(), provider.getId(), first.plusDays(1).atTime(9, 0));
+
+        List<AvailabilityResponse> days = appointmentService.getAvailableSlotsForRange(service.getId(), first, first.plusDays(2));
+
+        assertEquals(List.of(first, first.plusDays(1), first.plusDays(2)), days.stream().map(AvailabilityResponse::date).toList());
+        assertFalse(days.get(0).slots().contains("23:00"));
+        assertTrue(days.get(0).slots().contains("22:30"));
+        assertFalse(days.get(1).slots().contains("00:00"));
+        assertFalse(days.get(1).slots().contains("00:30"));
+        assertFalse(days.get(1).slots().contains("09:00"));
+        assertTrue(days.get(1).slots().contains("01:00"));
+        assertTrue(days.get(2).slots().containsAll(List.of("00:00", "09:00")));
+    }
+
+    @Test
+    void rangeOfAtMostMaxDaysIsServed() {
+        LocalDate from = LocalDate.now().plusDays(40);
+
+        List<AvailabilityResponse> days = appointmentService.getAvailableSlotsForRange(
+                service.getId(), from, from.plusDays(AppointmentService.MAX_RANGE_DAYS - 1));
+
+        assertEquals(AppointmentService.MAX_RANGE_DAYS, days.size());
+    }
+
+    @Test
+    void rangeLongerThanMaxDaysIsRejected() {
+        LocalDate from = LocalDate.now().plusDays(40);
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () ->
+                appointmentService.getAvailableSlotsForRange(service.getId(), from, from.plusDays(AppointmentService.MAX_RANGE_DAYS)));
+
+        assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+    }
+
+    @Test
+    void toBeforeFromIsRejected() {
+        LocalDate from = LocalDate.now().plusDays(40);
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () ->
+                appointmentService.getAvailableSlotsForRange(service.getId(), from, from.minusDays(1)));
+
+        assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+    }
+
+    private void book(LocalDateTime start, LocalDateTime end) {
+        Schedule slot = scheduleRepository.save(new Schedule(0, null, start, end, Boolean.FALSE, provider, service));
+        Appointment appointment = new Appointment();
+        appointment.setClient(client);
+        appointment.setProvider(provider);
+        appointment.setService(service);
+        appointment.setSchedule(slot);
+        appointment.setStartTime(start);
+        appointmentRepository.save(appointment);
+    }
+}
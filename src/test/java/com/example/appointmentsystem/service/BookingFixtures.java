@@ -0,0 +1,98 @@
+package com.example.appointmentsystem.service;
+
+import com.example.appointmentsystem.model.Service;
+import com.example.appointmentsystem.model.User;
+import com.example.appointmentsystem.model.WorkingDay;
+import com.example.appointmentsystem.model.enums.Role;
+import com.example.appointmentsystem.model.enums.ServiceType;
+import com.example.appointmentsystem.repository.ServiceRepository;
+import com.example.appointmentsystem.repository.UserRepository;
+import com.example.appointmentsystem.repository.WorkingDayRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Saved users, services and working hours for tests that book against the shared
+ * context. Every user gets a fresh email, so tests never see each other's rows.
+ */
+@Component
+public class BookingFixtures {
+
+    private final UserRepository userRepository;
+
+    private final ServiceRepository serviceRepository;
+
+    private final WorkingDayRepository workingDayRepository;
+
+    @Autowired
+    public BookingFixtures(UserRepository userRepository,
+                           ServiceRepository serviceRepository,
+                           WorkingDayRepository workingDayRepository) {
+        this.userRepository = userRepository;
+        this.serviceRepository = serviceRepository;
+        this.workingDayRepository = workingDayRepository;
+    }
+
+    public User provider() {
+        return user(Role.PROVIDER, "x");
+    }
+
+    public User client() {
+        return user(Role.CLIENT, "x");
+    }
+
+    /**
+     * Stores {@code password} as given, so pass it encoded for users that log in.
+     */
+    public User user(Role role, String password) {
+        User user = new User();
+        user.setFirstName("Test");
+        user.setLastName(role.name());
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        user.setPassword(password);
+        user.setPhone("0000");
+        user.setRole(role);
+        return userRepository.save(user);
+    }
+
+    public Service haircutService(User provider) {
+        return haircutService(provider, 30);
+    }
+
+    public Service haircutService(User provider, int durationMinutes) {
+        Service service = new Service();
+        service.setServiceType(ServiceType.HAIRCUT);
+        service.setName("Cut");
+        service.setDescription("Cut");
+        service.setPrice(20.0);
+        service.setDurationMinutes(durationMinutes);
+        service.setProvider(provider);
+        return serviceRepository.save(service);
+    }
+
+    /**
+     * Opens every day of the week from 08:00 to 20:00.
+     */
+    public void openAllWeek(User provider) {
+        openAllWeek(provider, LocalTime.of(8, 0), LocalTime.of(20, 0));
+    }
+
+    public void openAllWeek(User provider, LocalTime start, LocalTime end) {
+        open(provider, List.of(DayOfWeek.values()), start, end);
+    }
+
+    public void open(User provider, Collection<DayOfWeek> days, LocalTime start, LocalTime end) {
+        List<WorkingDay> week = new ArrayList<>();
+        for (DayOfWeek dow : days) {
+            week.add(new WorkingDay(0, provider, dow, start, end));
+        }
+        workingDayRepository.saveAll(week);
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.appointmentsystem.service;
+
+import com.example.appointmentsystem.model.Service;
+import com.example.appointmentsystem.model.User;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Races clients for one provider's slots straight into the pessimistic path and through
+ * {@link BookingService}'s striped lock, reporting lock conflicts and p99 latency.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingLockBenchmark {
+
+    private static final int SLOTS = 8;
+    private static final int CLIENTS_PER_SLOT = 4;
+    private static final int ROUNDS = 5;
+    private static final Set<String> EXPECTED_LOSSES = Set.of("Time slot already booked.", "Overlapping appointment exists.");
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private BookingFixtures fixtures;
+
+    @Test
+    void directVersusStripedLock() throws Exception {
+        User provider = fixtures.provider();
+        String clientEmail = fixtures.client().getEmail();
+        Service service = fixtures.haircutService(provider);
+        fixtures.openAllWeek(provider);
+
+        Result direct = new Result(0, 0, new ArrayList<>());
+        Result striped = new Result(0, 0, new ArrayList<>());
+        for (int round = 0; round < ROUNDS; round++) {
+            direct = direct.plus(race(LocalDate.now().plusDays(20 + 2 * round), start ->
+                    appointmentService.createAppointment(clientEmail, service.getId(), provider.getId(), start)));
+            striped = striped.plus(race(LocalDate.now().plusDays(21 + 2 * round), start ->
+                    bookingService.book(clientEmail, service.getId(), provider.getId(), start)));
+        }
+
+        assertEquals(SLOTS * ROUNDS, striped.booked());
+        System.out.printf("%d rounds of %d clients: direct booked=%d conflicts=%d p99=%dms, striped booked=%d conflicts=%d p99=%dms%n",
+                ROUNDS, SLOTS * CLIENTS_PER_SLOT,
+                direct.booked(), direct.conflicts(), direct.p99Millis(),
+                striped.booked(), striped.conflicts(), striped.p99Millis());
+    }
+
+    private Result race(LocalDate day, Booking booking) throws InterruptedException {
+        int clients = SLOTS * CLIENTS_PER_SLOT;
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        CountDownLatch go = new CountDownLatch(1);
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+
+        for (int i = 0; i < clients; i++) {
+            LocalDateTime start = day.atTime(9, 0).plusMinutes(30L * (i % SLOTS));
+            pool.execute(() -> {
+                try {
+                    go.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                long t0 = System.nanoTime();
+                try {
+                    booking.book(start);
+                    booked.incrementAndGet();
+                } catch (IllegalStateException e) {
+                    if (!EXPECTED_LOSSES.contains(e.getMessage())) {
+                        conflicts.incrementAndGet();
+                    }
+                } catch (Exception e) {
+                    conflicts.incrementAndGet();
+                } finally {
+                    latencies.add(System.nanoTime() - t0);
+                }
+            });
+        }
+        go.countDown();
+        pool.shutdown();
+        pool.awaitTermination(2, TimeUnit.MINUTES);
+        return new Result(booked.get(), conflicts.get(), new ArrayList<>(latencies));
+    }
+
+    @FunctionalInterface
+    private interface Booking {
+        void book(LocalDateTime start) throws Exception;
+    }
+
+    private record Result(int booked, int conflicts, List<Long> latencies) {
+
+        Result plus(Result other) {
+            List<Long> all = new ArrayList<>(latencies);
+            all.addAll(other.latencies());
+            return new Result(booked + other.booked(), conflicts + other.conflicts(), all);
+        }
+
+        long p99Millis() {
+            List<Long> sorted = new ArrayList<>(latencies);
+            Collections.sort(sorted);
+            return TimeUnit.NANOSECONDS.toMillis(sorted.get((int) Math.ceil(sorted.size() * 0.99) - 1));
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.appointmentsystem.service;
+
+import com.example.appointmentsystem.model.DTOs.BatchAppointmentResponse;
+import com.example.appointmentsystem.model.DTOs.BatchItemResult;
+import com.example.appointmentsystem.model.Service;
+import com.example.appointmentsystem.model.User;
+import com.example.appointmentsystem.model.enums.Recurrence;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingServiceBatchTest {
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private BookingFixtures fixtures;
+
+    private User provider;
+
+    private Service service;
+
+    private String clientEmail;
+
+    /** First Monday at least a week out; the provider works weekdays 9-17. */
+    private LocalDateTime firstMonday;
+
+    @BeforeEach
+    void setUp() {
+        provider = fixtures.provider();
+        clientEmail = fixtures.client().getEmail();
+        service = fixtures.haircutService(provider, 60);
+        fixtures.open(provider, List.of(DayOfWeek.MONDAY, DayOfWeek.TUESDAY, DayOfWeek.WEDNESDAY,
+                DayOfWeek.THURSDAY, DayOfWeek.FRIDAY), LocalTime.of(9, 0), LocalTime.of(17, 0));
+
+        firstMonday = LocalDate.now().plusWeeks(1).with(TemporalAdjusters.next(DayOfWeek.MONDAY)).atTime(10, 0);
+    }
+
+    @Test
+    void weeklySeriesIsBookedInOneCall() throws Exception {
+        List<LocalDateTime> starts = IntStream.range(0, 6)
+                .mapToObj(i -> Recurrence.WEEKLY.occurrence(firstMonday, i))
+                .toList();
+
+        BatchAppointmentResponse res = bookingService.bookBatch(clientEmail, service.getId(), provider.getId(), starts, true);
+
+        assertEquals(6, res.booked());
+        assertEquals(0, res.rejected());
+        res.items().forEach(item -> assertNotNull(item.appointment()));
+        assertFalse(appointmentService.getAvailableSlotsForDay(service.getId(), firstMonday.toLocalDate())
+                .slots().contains(firstMonday.toLocalTime().toString()));
+    }
+
+    @Test
+    void perItemModeBooksWhatFitsAndReportsTheRest() throws Exception {
+        appointmentService.createAppointment(clientEmail, service.getId(), provider.getId(), firstMonday.plusHours(2));
+
+        List<LocalDateTime> starts = List.of(
+                firstMonday,
+                firstMonday.plusMinutes(30),              // overlaps the first occurrence of this batch
+                firstMonday.plusHours(2),                 // already booked
+                firstMonday.plusDays(5),                  // Saturday
+                firstMonday.plusDays(1));
+
+        BatchAppointmentResponse res = bookingService.bookBatch(clientEmail, service.getId(), provider.getId(), starts, false);
+
+        assertEquals(2, res.booked());
+        assertEquals(3, res.rejected());
+        List<String> errors = res.items().stream().map(BatchItemResult::error).toList();
+        assertEquals(List.of(
+                "Overlapping appointment exists.",
+                "Time slot already booked.",
+                "Provider does not work on this day."), errors.stream().filter(e -> e != null).toList());
+        assertNull(res.items().get(0).error());
+    }
+
+    @Test
+    void allOrNothingWritesNothingWhenAnOccurrenceIsRejected() throws Exception {
+        List<LocalDateTime> starts = List.of(firstMonday, firstMonday.plusDays(5));
+
+        BatchAppointmentResponse res = bookingService.bookBatch(clientEmail, service.getId(), provider.getId(), starts, true);
+
+        assertEquals(0, res.booked());
+        BatchAppointmentResponse retry = bookingService.bookBatch(clientEmail, service.getId(), provider.getId(),
+                List.of(firstMonday), true);
+        assertEquals(1, retry.booked());
+    }
+}
@@ -0,0 +1,306 @@
+package com.example.appointmentsystem.service;
+
+import com.example.appointmentsystem.model.DTOs.AppointmentResponse;
+import com.example.appointmentsystem.model.Schedule;
+import com.example.appointmentsystem.model.Service;
+import com.example.appointmentsystem.model.User;
+import com.example.appointmentsystem.model.enums.BookingStrategy;
+import com.example.appointmentsystem.model.enums.ServiceType;
+import com.example.appointmentsystem.repository.AppointmentRepository;
+import com.example.appointmentsystem.repository.ScheduleRepository;
+import com.example.appointmentsystem.repository.ServiceRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Races many clients for a handful of slots of one provider through each booking path.
+ * Losing a slot with "already booked" is expected; anything else is a lock conflict.
+ * {@link BookingLockBenchmark} compares the paths' conflicts and latency.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingServiceConcurrencyTest {
+
+    private static final int SLOTS = 8;
+    private static final int CLIENTS_PER_SLOT = 4;
+    private static final Set<String> EXPECTED_LOSSES = Set.of("Time slot already booked.", "Overlapping appointment exists.");
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private SlotHoldService slotHolds;
+
+    @Autowired
+    private ServiceRepository serviceRepository;
+
+    @Autowired
+    private ScheduleRepository scheduleRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactions;
+
+    @Autowired
+    private BookingFixtures fixtures;
+
+    private User provider;
+
+    private Service service;
+
+    private String clientEmail;
+
+    @BeforeEach
+    void setUp() {
+        provider = fixtures.provider();
+        clientEmail = fixtures.client().getEmail();
+        service = fixtures.haircutService(provider);
+        fixtures.openAllWeek(provider);
+    }
+
+    @Test
+    void stripedLockBooksEachSlotOnceWithoutConflicts() throws Exception {
+        Result striped = race(LocalDate.now().plusDays(11), start ->
+                bookingService.book(clientEmail, service.getId(), provider.getId(), start));
+
+        assertEquals(SLOTS, striped.booked());
+        assertEquals(0, striped.conflicts());
+    }
+
+    @Test
+    void optimisticStrategyBooksEachSlotOnce() throws Exception {
+        BookingService optimistic = new BookingService(appointmentService, slotHolds, 64, 5000,
+                BookingStrategy.OPTIMISTIC, 3, 20, new SimpleMeterRegistry());
+
+        Result result = race(LocalDate.now().plusDays(12), start ->
+                optimistic.book(clientEmail, service.getId(), provider.getId(), start));
+
+        assertEquals(SLOTS, result.booked());
+        assertEquals(0, result.conflicts());
+    }
+
+    @Test
+    void optimisticConflictIsRetried() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        BookingService optimistic = new BookingService(appointmentService, slotHolds, 64, 5000,
+                BookingStrategy.OPTIMISTIC, 3, 20, registry);
+        LocalDateTime start = LocalDate.now().plusDays(16).atTime(9, 0);
+
+        CompletableFuture<AppointmentResponse> booking = againstConcurrentClaim(freeSlot(start),
+                () -> optimistic.book(clientEmail, service.getId(), provider.getId(), start));
+
+        assertEquals(start, booking.get(30, TimeUnit.SECONDS).startAt());
+        assertEquals(1, registry.get("booking.optimistic.retries").counter().count());
+    }
+
+    @Test
+    void optimisticConflictOnTheLastAttemptAsksToRetry() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        BookingService optimistic = new BookingService(appointmentService, slotHolds, 64, 5000,
+                BookingStrategy.OPTIMISTIC, 1, 20, registry);
+        LocalDateTime start = LocalDate.now().plusDays(17).atTime(9, 0);
+
+        CompletableFuture<AppointmentResponse> booking = againstConcurrentClaim(freeSlot(start),
+                () -> optimistic.book(clientEmail, service.getId(), provider.getId(), start));
+
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> booking.get(30, TimeUnit.SECONDS));
+        assertEquals("Slot is being booked concurrently, please retry.", failure.getCause().getMessage());
+        assertEquals(0, registry.get("booking.optimistic.retries").counter().count());
+    }
+
+    @Test
+    void atomicPathBooksEachSlotOnceWithoutProviderLock() throws Exception {
+        Result result = race(LocalDate.now().plusDays(13), start ->
+                appointmentService.createAppointmentAtomic(clientEmail, service.getId(), provider.getId(), start));
+
+        assertEquals(SLOTS, result.booked());
+        assertEquals(0, result.conflicts());
+    }
+
+    @Test
+    void queuedBookingsAreGroupCommittedOncePerSlot() throws Exception {
+        BookingQueue queue = new BookingQueue(appointmentService, bookingService,
+                true, 4, 256, 16, new SimpleMeterRegistry());
+        try {
+            Result result = race(LocalDate.now().plusDays(15), start -> {
+                try {
+                    queue.submit(clientEmail, service.getId(), provider.getId(), start).join();
+                } catch (CompletionException e) {
+                    throw (Exception) e.getCause();
+                }
+            });
+
+            assertEquals(SLOTS, result.booked());
+            assertEquals(0, result.conflicts());
+        } finally {
+            queue.shutdown();
+        }
+    }
+
+    @Test
+    void anotherServiceOfTheSameProviderCannotOverlap() throws Exception {
+        Service s = new Service();
+        s.setServiceType(ServiceType.HAIRCUT);
+        s.setName("Colour");
+        s.setDescription("Colour");
+        s.setPrice(40.0);
+        s.setDurationMinutes(60);
+        s.setProvider(provider);
+        Service longer = serviceRepository.save(s);
+        LocalDate day = LocalDate.now().plusDays(14);
+
+        appointmentService.createAppointment(clientEmail, service.getId(), provider.getId(), day.atTime(9, 0));
+
+        IllegalStateException overlap = assertThrows(IllegalStateException.class, () ->
+                appointmentService.createAppointmentAtomic(clientEmail, longer.getId(), provider.getId(), day.atTime(8, 30)));
+        assertEquals("Overlapping appointment exists.", overlap.getMessage());
+        appointmentService.createAppointment(clientEmail, longer.getId(), provider.getId(), day.atTime(9, 30));
+    }
+
+    @Test
+    void serviceOfAnotherProviderIsRejectedOnEveryPath() {
+        User other = fixtures.provider();
+        LocalDateTime start = LocalDate.now().plusDays(18).atTime(9, 0);
+        List<Executable> bookings = List.of(
+                () -> appointmentService.createAppointment(clientEmail, service.getId(), other.getId(), start),
+                () -> appointmentService.createAppointmentAtomic(clientEmail, service.getId(), other.getId(), start),
+                () -> bookingService.bookBatch(clientEmail, service.getId(), other.getId(), List.of(start), false));
+
+        for (Executable booking : bookings) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class, booking);
+            assertEquals("Service does not belong to this provider.", e.getMessage());
+        }
+        List<AppointmentService.AtomicBookingResult> queued = appointmentService.createAppointmentsAtomic(
+                List.of(new AppointmentService.AtomicBooking(clientEmail, service.getId(), other.getId(), start)));
+        assertEquals("Service does not belong to this provider.", queued.get(0).error().getMessage());
+    }
+
+    @Test
+    void enabledIntervalIndexSeesLoadedAndAddedBookings() throws Exception {
+        ProviderIntervalIndex index = new ProviderIntervalIndex(appointmentRepository, transactions.getTransactionManager(), true, 100, Duration.ofMinutes(30));
+        LocalDate day = LocalDate.now().plusDays(19);
+        appointmentService.createAppointment(clientEmail, service.getId(), provider.getId(), day.atTime(9, 0));
+
+        assertTrue(index.overlaps(provider.getId(), day.atTime(9, 15), day.atTime(9, 45)));
+        assertFalse(index.overlaps(provider.getId(), day.atTime(9, 30), day.atTime(10, 0)));
+
+        index.added(provider.getId(), -1, day.atTime(9, 30), day.atTime(10, 0));
+        assertTrue(index.overlaps(provider.getId(), day.atTime(9, 30), day.atTime(10, 0)));
+    }
+
+    private long freeSlot(LocalDateTime start) {
+        return scheduleRepository.save(new Schedule(0, null, start, start.plusMinutes(30), Boolean.TRUE, provider, service)).getId();
+    }
+
+    /**
+     * Bumps the slot's version in a transaction that commits only once {@code booking} is
+     * blocked writing the version it read, so that write is guaranteed to conflict once.
+     */
+    private CompletableFuture<AppointmentResponse> againstConcurrentClaim(long slotId, Callable<AppointmentResponse> booking)
+            throws Exception {
+        CountDownLatch bumped = new CountDownLatch(1);
+        CompletableFuture<Void> claim = CompletableFuture.runAsync(() -> transactions.executeWithoutResult(status -> {
+            jdbcTemplate.update("UPDATE schedules SET version = version + 1 WHERE id = ?", slotId);
+            bumped.countDown();
+            awaitBlockedSession();
+        }));
+        bumped.await(10, TimeUnit.SECONDS);
+        CompletableFuture<AppointmentResponse> result = CompletableFuture.supplyAsync(() -> {
+            try {
+                return booking.call();
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        });
+        claim.get(30, TimeUnit.SECONDS);
+        return result;
+    }
+
+    private void awaitBlockedSession() {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.sessions WHERE blocker_id IS NOT NULL", Integer.class) == 0) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("Booking never reached the slot update.");
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private Result race(LocalDate day, Booking booking) throws InterruptedException {
+        int clients = SLOTS * CLIENTS_PER_SLOT;
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        CountDownLatch go = new CountDownLatch(1);
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+
+        for (int i = 0; i < clients; i++) {
+            LocalDateTime start = day.atTime(9, 0).plusMinutes(30L * (i % SLOTS));
+            pool.execute(() -> {
+                try {
+                    go.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                try {
+                    booking.book(start);
+                    booked.incrementAndGet();
+                } catch (IllegalStateException e) {
+                    if (!EXPECTED_LOSSES.contains(e.getMessage())) {
+                        conflicts.incrementAndGet();
+                    }
+                } catch (Exception e) {
+                    conflicts.incrementAndGet();
+                }
+            });
+        }
+        go.countDown();
+        pool.shutdown();
+        pool.awaitTermination(2, TimeUnit.MINUTES);
+        return new Result(booked.get(), conflicts.get());
+    }
+
+    @FunctionalInterface
+    private interface Booking {
+        void book(LocalDateTime start) throws Exception;
+    }
+
+    private record Result(int booked, int conflicts) {
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.appointmentsystem.service;
+
+import com.example.appointmentsystem.model.Schedule;
+import com.example.appointmentsystem.model.Service;
+import com.example.appointmentsystem.model.User;
+import com.example.appointmentsystem.repository.ScheduleRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Bulk inserts through {@code saveAll} with JDBC batching against one statement per row,
+ * which is all IDENTITY ids allowed. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class BulkInsertBenchmark {
+
+    private static final int ROWS = 5_000;
+    private static final int ROUNDS = 5;
+
+    @Autowired
+    private ScheduleRepository scheduleRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private BookingFixtures fixtures;
+
+    @Test
+    void batchedVersusRowByRowInserts() {
+        // warm up both paths before measuring
+        insert(1);
+        insert(50);
+
+        long rowByRow = 0;
+        long batched = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            rowByRow += insert(1);
+            batched += insert(50);
+        }
+
+        System.out.printf("saveAll of %d schedules: row by row %d ms, batched %d ms (%.1fx)%n",
+                ROWS, rowByRow / ROUNDS / 1_000_000, batched / ROUNDS / 1_000_000, (double) rowByRow / batched);
+    }
+
+    private long insert(int batchSize) {
+        User provider = fixtures.provider();
+        Service service = fixtures.haircutService(provider);
+        List<Schedule> schedules = new ArrayList<>(ROWS);
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 0, 0);
+        for (int i = 0; i < ROWS; i++) {
+            LocalDateTime at = start.plusMinutes(30L * i);
+            schedules.add(new Schedule(0, null, at, at.plusMinutes(30), true, provider, service));
+        }
+
+        long began = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+            scheduleRepository.saveAll(schedules);
+        });
+        long elapsed = System.nanoTime() - began;
+
+        assertEquals(ROWS, schedules.stream().map(Schedule::getId).distinct().count());
+        return elapsed;
+    }
+}
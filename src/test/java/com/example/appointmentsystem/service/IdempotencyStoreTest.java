@@ -0,0 +1,121 @@
+package com.example.appointmentsystem.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdempotencyStoreTest {
+
+    private final IdempotencyStore store =
+            new IdempotencyStore(100, Duration.ofMinutes(5), 5_000, new SimpleMeterRegistry());
+
+    @Test
+    void duplicateOfAFailedQueuedRequestRunsItAgain() {
+        CompletableFuture<Integer> queued = new CompletableFuture<>();
+        CompletableFuture<IdempotencyStore.Outcome<Integer>> first =
+                store.execute("a@x", "k1", "body", () -> queued);
+        CompletableFuture<IdempotencyStore.Outcome<Integer>> duplicate =
+                store.execute("a@x", "k1", "body", () -> CompletableFuture.completedFuture(9));
+
+        queued.completeExceptionally(new IllegalStateException("Time slot already booked."));
+
+        assertTrue(first.isCompletedExceptionally());
+        assertEquals(9, duplicate.join().result());
+        assertFalse(duplicate.join().replayed());
+    }
+
+    @Test
+    void duplicateGetsTheOriginalResultWithoutRunningAgain() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+
+        IdempotencyStore.Outcome<Integer> first = run("a@x", "k1", "body", runs::incrementAndGet);
+        IdempotencyStore.Outcome<Integer> second = run("a@x", "k1", "body", runs::incrementAndGet);
+
+        assertFalse(first.replayed());
+        assertTrue(second.replayed());
+        assertEquals(1, second.result());
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void keysAreScopedPerCaller() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+
+        run("a@x", "k1", "body", runs::incrementAndGet);
+        run("b@x", "k1", "body", runs::incrementAndGet);
+
+        assertEquals(2, runs.get());
+    }
+
+    @Test
+    void reusingAKeyForAnotherRequestIsRejected() throws Exception {
+        run("a@x", "k1", "body", () -> 1);
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> run("a@x", "k1", "other body", () -> 2));
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, e.getStatusCode());
+    }
+
+    @Test
+    void failuresAreNotKept() throws Exception {
+        assertThrows(IllegalStateException.class, () -> run("a@x", "k1", "body", () -> {
+            throw new IllegalStateException("Time slot already booked.");
+        }));
+
+        IdempotencyStore.Outcome<Integer> retry = run("a@x", "k1", "body", () -> 7);
+
+        assertFalse(retry.replayed());
+        assertEquals(7, retry.result());
+    }
+
+    @Test
+    void concurrentDuplicatesWaitForTheInFlightRequest() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<IdempotencyStore.Outcome<Integer>>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(pool.submit(() -> run("a@x", "k1", "body", () -> {
+                    release.await();
+                    return runs.incrementAndGet();
+                })));
+            }
+            Thread.sleep(100);
+            release.countDown();
+
+            int replayed = 0;
+            for (Future<IdempotencyStore.Outcome<Integer>> future : futures) {
+                IdempotencyStore.Outcome<Integer> outcome = future.get();
+                assertEquals(1, outcome.result());
+                replayed += outcome.replayed() ? 1 : 0;
+            }
+            assertEquals(1, runs.get());
+            assertEquals(7, replayed);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private <T> IdempotencyStore.Outcome<T> run(String scope, String key, Object fingerprint,
+                                               Callable<T> action) throws Exception {
+        return store.execute(scope, key, fingerprint, () -> CompletableFuture.completedFuture(action.call())).join();
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.appointmentsystem.service;
+
+import com.example.appointmentsystem.model.DTOs.AppointmentResponse;
+import com.example.appointmentsystem.model.Schedule;
+import com.example.appointmentsystem.model.Service;
+import com.example.appointmentsystem.model.User;
+import com.example.appointmentsystem.repository.ScheduleRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The test profile turns the scheduled run off and uses chunks of two rows.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ScheduleReaperTest {
+
+    @Autowired
+    private ScheduleReaper reaper;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private ScheduleRepository scheduleRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private BookingFixtures fixtures;
+
+    private User provider;
+
+    private User client;
+
+    private Service service;
+
+    @BeforeEach
+    void setUp() {
+        provider = fixtures.provider();
+        client = fixtures.client();
+        service = fixtures.haircutService(provider);
+        fixtures.openAllWeek(provider);
+    }
+
+    @Test
+    void reclaimsPastFreeSlotsAndKeepsBookedOnes() throws Exception {
+        LocalDate past = LocalDate.now().minusDays(3);
+        for (int i = 0; i < 5; i++) {
+            freeSlot(past.atTime(9, 0).plusMinutes(30L * i));
+        }
+        AppointmentResponse kept = book(LocalDate.now().plusDays(60).atTime(9, 0));
+        double before = meterRegistry.counter("schedules.reaper.reclaimed").count();
+
+        int deleted = reaper.reap();
+
+        assertTrue(deleted >= 5);
+        assertTrue(meterRegistry.counter("schedules.reaper.reclaimed").count() - before >= 5);
+        assertEquals(List.of(kept.startAt()), jdbcTemplate.queryForList(
+                "SELECT start_time FROM schedules WHERE provider_id = ?", LocalDateTime.class, provider.getId()));
+    }
+
+    @Test
+    void keepsFutureFreeSlotsForBookingToClaim() throws Exception {
+        LocalDateTime start = LocalDate.now().plusDays(61).atTime(9, 0);
+        appointmentService.deleteAppointment(book(start).id(), client.getEmail());
+
+        reaper.reap();
+
+        assertEquals(List.of(true), jdbcTemplate.queryForList(
+                "SELECT is_available FROM schedules WHERE provider_id = ?", Boolean.class, provider.getId()));
+        // the freed row is claimed again rather than re-inserted
+        book(start);
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM schedules WHERE provider_id = ?", Integer.class, provider.getId()));
+    }
+
+    private void freeSlot(LocalDateTime start) {
+        scheduleRepository.save(new Schedule(0, null, start, start.plusMinutes(30), Boolean.TRUE, provider, service));
+    }
+
+    private AppointmentResponse book(LocalDateTime startAt) throws Exception {
+        return appointmentService.createAppointment(client.getEmail(), service.getId(), provider.getId(), startAt);
+    }
+}
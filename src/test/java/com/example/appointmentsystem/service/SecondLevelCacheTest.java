@@ -0,0 +1,102 @@
+package com.example.appointmentsystem.service;
+
+import com.example.appointmentsystem.model.DTOs.UpdateServiceDTO;
+import com.example.appointmentsystem.model.DTOs.WorkingDayDTO;
+import com.example.appointmentsystem.model.Service;
+import com.example.appointmentsystem.model.User;
+import com.example.appointmentsystem.model.WorkingDay;
+import com.example.appointmentsystem.repository.ServiceRepository;
+import com.example.appointmentsystem.repository.UserRepository;
+import com.example.appointmentsystem.repository.WorkingDayRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Reference data read twice must only reach the database once, and updates must show
+ * through the cache.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SecondLevelCacheTest {
+
+    @Autowired
+    private ServiceService serviceService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ServiceRepository serviceRepository;
+
+    @Autowired
+    private WorkingDayRepository workingDayRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private BookingFixtures fixtures;
+
+    private User provider;
+
+    private Service service;
+
+    @BeforeEach
+    void setUp() {
+        provider = fixtures.provider();
+        service = fixtures.haircutService(provider);
+        workingDayRepository.save(new WorkingDay(0, provider, DayOfWeek.MONDAY, LocalTime.of(9, 0), LocalTime.of(17, 0)));
+    }
+
+    @Test
+    void repeatedLookupsAreServedFromTheCache() {
+        userRepository.findByEmail(provider.getEmail()).orElseThrow();
+        serviceRepository.findById(service.getId()).orElseThrow();
+        workingDayRepository.findByProviderIdAndDayOfWeek(provider.getId(), DayOfWeek.MONDAY).orElseThrow();
+
+        Statistics statistics = statistics();
+        statistics.clear();
+        userRepository.findByEmail(provider.getEmail()).orElseThrow();
+        serviceRepository.findById(service.getId()).orElseThrow();
+        workingDayRepository.findByProviderIdAndDayOfWeek(provider.getId(), DayOfWeek.MONDAY).orElseThrow();
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getNaturalIdCacheHitCount() > 0);
+        assertTrue(statistics.getQueryCacheHitCount() > 0);
+    }
+
+    @Test
+    void serviceUpdatesShowThroughTheCache() {
+        serviceRepository.findById(service.getId()).orElseThrow();
+        workingDayRepository.findByProviderId(provider.getId());
+
+        serviceService.updateService(service.getId(), new UpdateServiceDTO(service.getId(), "HAIRCUT", "Long cut",
+                "Cut", 25.0, 45, provider.getEmail(),
+                List.of(new WorkingDayDTO(DayOfWeek.TUESDAY, LocalTime.of(10, 0), LocalTime.of(18, 0)))));
+
+        Service updated = serviceRepository.findById(service.getId()).orElseThrow();
+        List<WorkingDay> week = workingDayRepository.findByProviderId(provider.getId());
+        assertEquals("Long cut", updated.getName());
+        assertEquals(45, updated.getDurationMinutes());
+        assertEquals(1, week.size());
+        assertEquals(DayOfWeek.TUESDAY, week.get(0).getDayOfWeek());
+        assertTrue(workingDayRepository.findByProviderIdAndDayOfWeek(provider.getId(), DayOfWeek.MONDAY).isEmpty());
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.appointmentsystem.service;
+
+import com.example.appointmentsystem.model.DTOs.SlotHoldResponse;
+import com.example.appointmentsystem.model.Service;
+import com.example.appointmentsystem.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SlotHoldServiceTest {
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private SlotHoldService slotHolds;
+
+    @Autowired
+    private BookingFixtures fixtures;
+
+    private User provider;
+
+    private Service service;
+
+    private String holder;
+
+    private String other;
+
+    private LocalDateTime slot;
+
+    @BeforeEach
+    void setUp() {
+        provider = fixtures.provider();
+        holder = fixtures.client().getEmail();
+        other = fixtures.client().getEmail();
+        service = fixtures.haircutService(provider);
+        fixtures.openAllWeek(provider);
+
+        slot = LocalDate.now().plusDays(3).atTime(10, 0);
+    }
+
+    @Test
+    void heldSlotIsHiddenAndOnlyBookableByItsHolder() throws Exception {
+        assertTrue(freeSlots().contains("10:00"));
+
+        bookingService.hold(holder, service.getId(), provider.getId(), slot);
+
+        assertFalse(freeSlots().contains("10:00"));
+        IllegalStateException e = assertThrows(IllegalStateException.class, () ->
+                bookingService.book(other, service.getId(), provider.getId(), slot));
+        assertEquals("Time slot is held by another client.", e.getMessage());
+        assertThrows(IllegalStateException.class, () ->
+                bookingService.hold(other, service.getId(), provider.getId(), slot.plusMinutes(15)));
+
+        bookingService.book(holder, service.getId(), provider.getId(), slot);
+        assertEquals(List.of(), slotHolds.heldRanges(provider.getId(), slot, slot.plusMinutes(30)));
+    }
+
+    @Test
+    void expiredHoldsAreReleasedAndTheSlotReappears() throws Exception {
+        bookingService.hold(holder, service.getId(), provider.getId(), slot);
+        assertFalse(freeSlots().contains("10:00"));
+
+        slotHolds.expireDue(System.currentTimeMillis() + 3_600_000);
+
+        assertTrue(freeSlots().contains("10:00"));
+        bookingService.book(other, service.getId(), provider.getId(), slot);
+    }
+
+    @Test
+    void holderCanReleaseTheirHold() throws Exception {
+        SlotHoldResponse hold = bookingService.hold(holder, service.getId(), provider.getId(), slot);
+
+        assertThrows(SecurityException.class, () -> slotHolds.release(hold.holdId(), other));
+        slotHolds.release(hold.holdId(), holder);
+
+        assertTrue(freeSlots().contains("10:00"));
+    }
+
+    @Test
+    void holdingTheSameStartAgainReplacesTheHold() throws Exception {
+        SlotHoldResponse first = bookingService.hold(holder, service.getId(), provider.getId(), slot);
+        SlotHoldResponse second = bookingService.hold(holder, service.getId(), provider.getId(), slot);
+
+        assertThrows(NoSuchElementException.class, () -> slotHolds.release(first.holdId(), holder));
+        assertEquals(1, slotHolds.heldRanges(provider.getId(), slot, slot.plusMinutes(30)).size());
+        // the replaced hold no longer counts against the limit of three
+        bookingService.hold(holder, service.getId(), provider.getId(), slot.plusHours(1));
+        bookingService.hold(holder, service.getId(), provider.getId(), slot.plusHours(2));
+
+        bookingService.book(holder, service.getId(), provider.getId(), slot);
+        assertThrows(NoSuchElementException.class, () -> slotHolds.release(second.holdId(), holder));
+    }
+
+    @Test
+    void clientCannotHoldMoreThanTheLimit() throws Exception {
+        SlotHoldResponse first = bookingService.hold(holder, service.getId(), provider.getId(), slot);
+        bookingService.hold(holder, service.getId(), provider.getId(), slot.plusHours(1));
+        bookingService.hold(holder, service.getId(), provider.getId(), slot.plusHours(2));
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () ->
+                bookingService.hold(holder, service.getId(), provider.getId(), slot.plusHours(3)));
+        assertEquals("Too many slots held, book or release one first.", e.getMessage());
+
+        slotHolds.release(first.holdId(), holder);
+        bookingService.hold(holder, service.getId(), provider.getId(), slot.plusHours(3));
+    }
+
+    private List<String> freeSlots() {
+        return appointmentService.getAvailableSlotsForDay(service.getId(), slot.toLocalDate()).slots();
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.appointmentsystem.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HashedTimingWheelTest {
+
+    @Test
+    void itemsComeDueNoEarlierThanTheirDeadline() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(100, 8, 0);
+        wheel.schedule("a", 250);
+        wheel.schedule("b", 300);
+
+        assertEquals(List.of(), wheel.advance(249));
+        assertEquals(List.of(), wheel.advance(299));
+        assertEquals(List.of("a", "b"), wheel.advance(300));
+        assertEquals(List.of(), wheel.advance(1_000));
+    }
+
+    @Test
+    void deadlinesBeyondOneLapWaitForTheirRound() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(10, 4, 0);
+        wheel.schedule("near", 20);
+        wheel.schedule("far", 20 + 4 * 10 * 3);
+
+        assertEquals(List.of("near"), wheel.advance(50));
+        assertEquals(List.of(), wheel.advance(130));
+        assertEquals(List.of("far"), wheel.advance(140));
+    }
+
+    @Test
+    void longGapReleasesEverythingDueInOneBatch() {
+        HashedTimingWheel<Integer> wheel = new HashedTimingWheel<>(10, 4, 0);
+        for (int i = 1; i <= 20; i++) {
+            wheel.schedule(i, i * 10L);
+        }
+
+        assertEquals(20, wheel.advance(10_000).size());
+    }
+
+    @Test
+    void cancelledItemsNeverComeDue() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(10, 4, 0);
+        HashedTimingWheel.Timeout<String> cancelled = wheel.schedule("a", 20);
+        HashedTimingWheel.Timeout<String> expired = wheel.schedule("b", 20);
+
+        assertTrue(cancelled.cancel());
+        assertEquals(List.of("b"), wheel.advance(20));
+        assertFalse(expired.cancel());
+    }
+
+    @Test
+    void pastDeadlineIsDueOnNextTick() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(10, 4, 0);
+        wheel.advance(100);
+        wheel.schedule("late", 50);
+
+        assertEquals(List.of("late"), wheel.advance(110));
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.appointmentsystem.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IntervalTreeTest {
+
+    @Test
+    void touchingIntervalsDoNotOverlap() {
+        IntervalTree tree = new IntervalTree();
+        tree.add(10, 20, 1);
+
+        assertFalse(tree.overlaps(0, 10));
+        assertFalse(tree.overlaps(20, 30));
+        assertTrue(tree.overlaps(19, 21));
+        assertTrue(tree.overlaps(12, 15));
+        assertTrue(tree.overlaps(0, 40));
+    }
+
+    @Test
+    void addIsIdempotentAndRemoveForgetsTheInterval() {
+        IntervalTree tree = new IntervalTree();
+        tree.add(10, 20, 1);
+        tree.add(10, 20, 1);
+        tree.add(10, 15, 2);
+
+        assertEquals(2, tree.size());
+        assertTrue(tree.remove(10, 1));
+        assertFalse(tree.remove(10, 1));
+        assertTrue(tree.overlaps(14, 16));
+        assertFalse(tree.overlaps(15, 20));
+    }
+
+    @Test
+    void emptyIntervalIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new IntervalTree().add(5, 5, 1));
+    }
+
+    @Test
+    void agreesWithLinearScanUnderRandomInsertsAndRemovals() {
+        Random random = new Random(42);
+        IntervalTree tree = new IntervalTree();
+        List<long[]> live = new ArrayList<>();
+
+        for (int i = 0; i < 5_000; i++) {
+            if (!live.isEmpty() && random.nextInt(3) == 0) {
+                long[] gone = live.remove(random.nextInt(live.size()));
+                assertTrue(tree.remove(gone[0], gone[2]));
+            } else {
+                long start = random.nextInt(10_000);
+                long[] interval = {start, start + 1 + random.nextInt(120), i};
+                tree.add(interval[0], interval[1], interval[2]);
+                live.add(interval);
+            }
+
+            long queryStart = random.nextInt(10_000);
+            long queryEnd = queryStart + 1 + random.nextInt(60);
+            boolean expected = live.stream().anyMatch(iv -> iv[0] < queryEnd && iv[1] > queryStart);
+            assertEquals(expected, tree.overlaps(queryStart, queryEnd));
+        }
+        assertEquals(live.size(), tree.size());
+    }
+}
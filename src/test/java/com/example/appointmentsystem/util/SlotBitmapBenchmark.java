@@ -0,0 +1,80 @@
+package com.example.appointmentsystem.util;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the bitmap engine with the candidate-by-range filter it replaced.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class SlotBitmapBenchmark {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 6, 2);
+    private static final LocalTime WORK_START = LocalTime.of(7, 0);
+    private static final LocalTime WORK_END = LocalTime.of(21, 0);
+    private static final int DURATION = 15;
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 200_000;
+
+    @Test
+    void bitmapVersusNestedStreamFilter() {
+        List<Range> booked = new ArrayList<>();
+        for (int i = 0; i < 28; i++) {
+            LocalDateTime start = DAY.atTime(WORK_START).plusMinutes(i * 30L);
+            booked.add(new Range(start, start.plusMinutes(DURATION)));
+        }
+
+        assertEquals(legacy(booked), bitmap(booked));
+
+        long legacyNanos = measure(() -> legacy(booked));
+        long bitmapNanos = measure(() -> bitmap(booked));
+
+        System.out.printf("available slots, %d bookings: legacy %d ns/op, bitmap %d ns/op (%.1fx)%n",
+                booked.size(), legacyNanos, bitmapNanos, (double) legacyNanos / bitmapNanos);
+    }
+
+    private static long measure(Runnable op) {
+        for (int i = 0; i < WARMUP; i++) {
+            op.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            op.run();
+        }
+        return (System.nanoTime() - start) / ITERATIONS;
+    }
+
+    private static List<String> bitmap(List<Range> booked) {
+        SlotBitmap day = SlotBitmap.forWindow(WORK_START, WORK_END);
+        booked.forEach(r -> day.block(DAY, r.start(), r.end()));
+        return day.freeSlots(WORK_START, WORK_END, DURATION).stream()
+                .map(LocalTime::toString)
+                .toList();
+    }
+
+    private static List<String> legacy(List<Range> booked) {
+        List<LocalDateTime> candidateStarts = new ArrayList<>();
+        LocalTime cursor = WORK_START;
+        while (!cursor.plusMinutes(DURATION).isAfter(WORK_END)) {
+            candidateStarts.add(LocalDateTime.of(DAY, cursor));
+            cursor = cursor.plusMinutes(DURATION);
+        }
+        return candidateStarts.stream()
+                .filter(start -> booked.stream().noneMatch(b ->
+                        start.isBefore(b.end()) && start.plusMinutes(DURATION).isAfter(b.start())))
+                .map(start -> start.toLocalTime().toString())
+                .toList();
+    }
+
+    private record Range(LocalDateTime start, LocalDateTime end) {
+    }
+}
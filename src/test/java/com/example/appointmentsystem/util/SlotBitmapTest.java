@@ -0,0 +1,98 @@
+package com.example.appointmentsystem.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlotBitmapTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 6, 2);
+
+    @Test
+    void emptyDayReturnsEveryBackToBackSlot() {
+        SlotBitmap bitmap = SlotBitmap.forWindow(LocalTime.of(9, 0), LocalTime.of(11, 0));
+
+        List<LocalTime> slots = bitmap.freeSlots(LocalTime.of(9, 0), LocalTime.of(11, 0), 30);
+
+        assertEquals(List.of(LocalTime.of(9, 0), LocalTime.of(9, 30), LocalTime.of(10, 0), LocalTime.of(10, 30)), slots);
+    }
+
+    @Test
+    void slotThatDoesNotFitBeforeWindowEndIsDropped() {
+        SlotBitmap bitmap = SlotBitmap.forWindow(LocalTime.of(9, 0), LocalTime.of(10, 10));
+
+        List<LocalTime> slots = bitmap.freeSlots(LocalTime.of(9, 0), LocalTime.of(10, 10), 45);
+
+        assertEquals(List.of(LocalTime.of(9, 0)), slots);
+    }
+
+    @Test
+    void bookingRemovesEveryCandidateItOverlaps() {
+        SlotBitmap bitmap = SlotBitmap.forWindow(LocalTime.of(9, 0), LocalTime.of(12, 0));
+        bitmap.block(DAY, DAY.atTime(9, 50), DAY.atTime(10, 40));
+
+        List<LocalTime> slots = bitmap.freeSlots(LocalTime.of(9, 0), LocalTime.of(12, 0), 30);
+
+        assertEquals(List.of(LocalTime.of(9, 0), LocalTime.of(11, 0), LocalTime.of(11, 30)), slots);
+    }
+
+    @Test
+    void bookingEndingExactlyAtCandidateStartLeavesItFree() {
+        SlotBitmap bitmap = SlotBitmap.forWindow(LocalTime.of(9, 0), LocalTime.of(10, 0));
+        bitmap.block(DAY, DAY.atTime(8, 0), DAY.atTime(9, 30));
+
+        List<LocalTime> slots = bitmap.freeSlots(LocalTime.of(9, 0), LocalTime.of(10, 0), 30);
+
+        assertEquals(List.of(LocalTime.of(9, 30)), slots);
+    }
+
+    @Test
+    void partialMinutesAreRoundedOutwards() {
+        SlotBitmap bitmap = SlotBitmap.forWindow(LocalTime.of(9, 0), LocalTime.of(10, 0));
+        bitmap.block(DAY, DAY.atTime(9, 29, 30), DAY.atTime(9, 30, 1));
+
+        List<LocalTime> slots = bitmap.freeSlots(LocalTime.of(9, 0), LocalTime.of(10, 0), 30);
+
+        assertTrue(slots.isEmpty());
+    }
+
+    @Test
+    void bookingsFromNeighbouringDaysAreClamped() {
+        SlotBitmap bitmap = SlotBitmap.forWindow(LocalTime.of(0, 0), LocalTime.of(23, 59));
+        bitmap.block(DAY, DAY.minusDays(1).atTime(23, 0), DAY.atTime(1, 0));
+        bitmap.block(DAY, DAY.atTime(23, 0), DAY.plusDays(1).atTime(2, 0));
+        bitmap.block(DAY, LocalDateTime.of(DAY.plusDays(3), LocalTime.NOON), DAY.plusDays(3).atTime(13, 0));
+
+        List<LocalTime> slots = bitmap.freeSlots(LocalTime.of(0, 0), LocalTime.of(23, 59), 60);
+
+        assertEquals(22, slots.size());
+        assertEquals(LocalTime.of(1, 0), slots.get(0));
+        assertEquals(LocalTime.of(22, 0), slots.get(slots.size() - 1));
+    }
+
+    @Test
+    void scansAcrossWordBoundaries() {
+        SlotBitmap bitmap = SlotBitmap.forWindow(LocalTime.of(0, 0), LocalTime.of(23, 59));
+        bitmap.block(DAY, DAY.atTime(2, 7), DAY.atTime(2, 8));
+
+        List<LocalTime> slots = bitmap.freeSlots(LocalTime.of(0, 0), LocalTime.of(23, 59), 200);
+
+        assertEquals(List.of(LocalTime.of(3, 20), LocalTime.of(6, 40), LocalTime.of(10, 0),
+                LocalTime.of(13, 20), LocalTime.of(16, 40), LocalTime.of(20, 0)), slots);
+    }
+
+    @Test
+    void rejectsNonPositiveDuration() {
+        SlotBitmap bitmap = SlotBitmap.forWindow(LocalTime.of(9, 0), LocalTime.of(10, 0));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> bitmap.freeSlots(LocalTime.of(9, 0), LocalTime.of(10, 0), 0));
+    }
+}